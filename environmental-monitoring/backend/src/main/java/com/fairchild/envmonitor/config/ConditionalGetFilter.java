@@ -0,0 +1,171 @@
+package com.fairchild.envmonitor.config;
+
+import com.fairchild.envmonitor.entity.HttpValidator;
+import com.fairchild.envmonitor.repository.HttpValidatorRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Turns GET requests into conditional requests using the ETag and
+ * Last-Modified validators from the previous response for the same URL.
+ * A 304 Not Modified reaches the caller as a response without a body, so
+ * {@code retrieve().bodyToMono(...)} completes empty and the parse and save
+ * steps never run. Validators are kept in memory and persisted to
+ * {@code http_validator_cache} so they survive restarts.
+ *
+ * <p>Calls wrapped in {@link #rememberOnSuccess} only take on the validators
+ * of their responses once the whole call, storing the data included, has
+ * completed; if it fails or is cancelled they are dropped, so a response
+ * that was never stored cannot be answered with a 304 next time.
+ */
+@Component
+public class ConditionalGetFilter implements ExchangeFilterFunction {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConditionalGetFilter.class);
+
+    // Keep credentials passed as query parameters out of the cache key and the database
+    private static final Pattern SECRET_QUERY_PARAM = Pattern.compile("(?i)((?:api_?key|token)=)[^&]*");
+
+    private static final String PENDING_VALIDATORS = ConditionalGetFilter.class.getName() + ".PENDING_VALIDATORS";
+
+    private final HttpValidatorRepository httpValidatorRepository;
+    private final Scheduler persistenceScheduler;
+    private final Map<String, Validators> validators = new ConcurrentHashMap<>();
+    private final LongAdder notModifiedCount = new LongAdder();
+
+    public ConditionalGetFilter(HttpValidatorRepository httpValidatorRepository,
+            @Qualifier("persistenceScheduler") Scheduler persistenceScheduler) {
+        this.httpValidatorRepository = httpValidatorRepository;
+        this.persistenceScheduler = persistenceScheduler;
+    }
+
+    @PostConstruct
+    public void loadValidators() {
+        for (HttpValidator validator : httpValidatorRepository.findAll()) {
+            validators.put(validator.getUrl(), new Validators(validator.getEtag(), validator.getLastModified()));
+        }
+        logger.info("Loaded {} persisted HTTP validators", validators.size());
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!HttpMethod.GET.equals(request.method())) {
+            return next.exchange(request);
+        }
+
+        String key = cacheKey(request);
+        Validators cached = validators.get(key);
+        ClientRequest conditionalRequest = cached == null ? request : ClientRequest.from(request)
+                .headers(headers -> {
+                    if (cached.etag != null) {
+                        headers.set(HttpHeaders.IF_NONE_MATCH, cached.etag);
+                    }
+                    if (cached.lastModified != null) {
+                        headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.lastModified);
+                    }
+                })
+                .build();
+
+        return Mono.deferContextual(context -> next.exchange(conditionalRequest)
+                .doOnNext(response -> {
+                    if (response.statusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+                        notModifiedCount.increment();
+                        logger.debug("Not modified since last fetch: {}", key);
+                    } else if (response.statusCode().is2xxSuccessful()) {
+                        HttpHeaders headers = response.headers().asHttpHeaders();
+                        Validators fresh = new Validators(headers.getETag(),
+                                headers.getFirst(HttpHeaders.LAST_MODIFIED));
+                        Optional<Queue<Runnable>> pending = context.getOrEmpty(PENDING_VALIDATORS);
+                        if (pending.isPresent()) {
+                            pending.get().add(() -> remember(key, fresh));
+                        } else {
+                            remember(key, fresh);
+                        }
+                    }
+                }));
+    }
+
+    /**
+     * Holds back the validators of every response received while running
+     * {@code call} until it completes successfully (with or without a value).
+     * Wrap fetches that store what they download around their storing step.
+     */
+    public static <T> Mono<T> rememberOnSuccess(Mono<T> call) {
+        return Mono.defer(() -> {
+            Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+            return call
+                    .doOnSuccess(result -> pending.forEach(Runnable::run))
+                    .contextWrite(context -> context.put(PENDING_VALIDATORS, pending));
+        });
+    }
+
+    public long getNotModifiedCount() {
+        return notModifiedCount.sum();
+    }
+
+    private void remember(String key, Validators fresh) {
+        if (fresh.etag == null && fresh.lastModified == null) {
+            return;
+        }
+        Validators previous = validators.put(key, fresh);
+        if (!fresh.equals(previous)) {
+            // Response callbacks run on the HTTP event loop, so the JDBC write is handed off
+            Mono.fromRunnable(() -> httpValidatorRepository.upsert(key, fresh.etag, fresh.lastModified))
+                    .subscribeOn(persistenceScheduler)
+                    .subscribe(null, error -> logger.warn("Could not persist HTTP validators for {}: {}",
+                            key, error.getMessage()));
+        }
+    }
+
+    private static String cacheKey(ClientRequest request) {
+        return SECRET_QUERY_PARAM.matcher(request.url().toString()).replaceAll("$1***");
+    }
+
+    private static final class Validators {
+        final String etag;
+        final String lastModified;
+
+        Validators(String etag, String lastModified) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Validators)) {
+                return false;
+            }
+            Validators other = (Validators) o;
+            return Objects.equals(etag, other.etag) && Objects.equals(lastModified, other.lastModified);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(etag, lastModified);
+        }
+    }
+}
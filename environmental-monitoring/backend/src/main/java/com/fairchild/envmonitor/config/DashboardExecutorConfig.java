@@ -0,0 +1,39 @@
+package com.fairchild.envmonitor.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkhead for the dashboard's parallel section queries, so they neither
+ * compete with other users of the common fork-join pool nor can starve
+ * them. Sections beyond the queue capacity are rejected and reported as
+ * failed rather than run on the request thread. With virtual threads
+ * enabled each section gets a virtual thread instead and the Hikari pool
+ * is the bound.
+ */
+@Configuration
+public class DashboardExecutorConfig {
+
+    @Bean(name = "dashboardExecutor", destroyMethod = "shutdown")
+    public ExecutorService dashboardExecutor(MeterRegistry meterRegistry,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${dashboard.executor.threads:8}") int threads,
+            @Value("${dashboard.executor.queue-capacity:64}") int queueCapacity) {
+        if (virtualThreads) {
+            return VirtualThreads.newExecutor("dashboard-vt-");
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("dashboard-"));
+        executor.allowCoreThreadTimeOut(true);
+        return ExecutorServiceMetrics.monitor(meterRegistry, executor, "dashboard");
+    }
+}
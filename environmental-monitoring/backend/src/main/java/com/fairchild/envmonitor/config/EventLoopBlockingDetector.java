@@ -0,0 +1,71 @@
+package com.fairchild.envmonitor.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Schedulers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Wraps the application DataSource so that borrowing a JDBC connection from
+ * a non-blocking thread (Reactor Netty event loops, Reactor parallel workers)
+ * is logged as an error with the offending stack trace. With
+ * {@code ingest.persistence.fail-on-blocking=true} the call fails instead,
+ * which turns any regression into a visible error during development.
+ */
+@Component
+public class EventLoopBlockingDetector implements BeanPostProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventLoopBlockingDetector.class);
+
+    private final boolean failOnBlocking;
+
+    public EventLoopBlockingDetector(Environment environment) {
+        this.failOnBlocking = environment.getProperty("ingest.persistence.fail-on-blocking", Boolean.class, false);
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource && !(bean instanceof GuardedDataSource)) {
+            return new GuardedDataSource((DataSource) bean);
+        }
+        return bean;
+    }
+
+    private final class GuardedDataSource extends DelegatingDataSource {
+
+        GuardedDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            checkThread();
+            return super.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            checkThread();
+            return super.getConnection(username, password);
+        }
+
+        private void checkThread() {
+            if (Schedulers.isInNonBlockingThread()) {
+                IllegalStateException violation = new IllegalStateException(
+                        "Blocking JDBC call on non-blocking thread " + Thread.currentThread().getName());
+                if (failOnBlocking) {
+                    throw violation;
+                }
+                logger.error("Blocking JDBC call detected on an event-loop thread; "
+                        + "route it through the persistence scheduler", violation);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.fairchild.envmonitor.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Reactor Netty connection layer shared by every upstream WebClient. One
+ * pool per remote host, capped at {@code max-connections-per-host}, with
+ * idle and maximum-lifetime eviction so stale keep-alive connections are
+ * not reused. {@code response-timeout-ms} bounds the gap between reads of a
+ * response, so a hung upstream cannot pin a connection however long the
+ * caller is willing to wait. Responses are requested gzip-compressed, and
+ * HTTP/2 is negotiated over TLS where the server offers it.
+ *
+ * <p>Pool and request metrics are published through Micrometer under the
+ * {@code reactor.netty.*} names.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${external-apis.http.max-connections-per-host:50}")
+    private int maxConnectionsPerHost;
+
+    @Value("${external-apis.http.pending-acquire-max-count:1000}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${external-apis.http.pending-acquire-timeout-ms:10000}")
+    private long pendingAcquireTimeoutMs;
+
+    @Value("${external-apis.http.max-idle-time-ms:30000}")
+    private long maxIdleTimeMs;
+
+    @Value("${external-apis.http.max-life-time-ms:300000}")
+    private long maxLifeTimeMs;
+
+    @Value("${external-apis.http.connect-timeout-ms:5000}")
+    private int connectTimeoutMs;
+
+    @Value("${external-apis.http.response-timeout-ms:20000}")
+    private long responseTimeoutMs;
+
+    @Value("${external-apis.http.http2:true}")
+    private boolean http2;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider upstreamConnectionProvider() {
+        return ConnectionProvider.builder("upstream")
+                .maxConnections(maxConnectionsPerHost)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMs))
+                .maxLifeTime(Duration.ofMillis(maxLifeTimeMs))
+                .evictInBackground(Duration.ofMillis(maxIdleTimeMs))
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public HttpClient upstreamHttpClient(ConnectionProvider upstreamConnectionProvider) {
+        HttpClient httpClient = HttpClient.create(upstreamConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs))
+                .compress(true)
+                // Paths carry station ids; a fixed uri tag keeps the meter count bounded
+                .metrics(true, uri -> "/");
+        if (http2) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+        return httpClient;
+    }
+}
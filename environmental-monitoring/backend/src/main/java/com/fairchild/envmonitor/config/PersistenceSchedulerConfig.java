@@ -0,0 +1,37 @@
+package com.fairchild.envmonitor.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded scheduler for blocking JDBC work in the ingest pipeline. The
+ * WebClient callbacks run on Reactor Netty event-loop threads, so pipelines
+ * {@code publishOn} this scheduler before touching repositories. Work beyond
+ * the queue capacity is rejected rather than run on the calling thread,
+ * which could be an event loop.
+ */
+@Configuration
+public class PersistenceSchedulerConfig {
+
+    @Bean(name = "persistenceScheduler", destroyMethod = "dispose")
+    public Scheduler persistenceScheduler(MeterRegistry meterRegistry,
+            @Value("${ingest.persistence.threads:8}") int threads,
+            @Value("${ingest.persistence.queue-capacity:10000}") int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("ingest-persist-"));
+        executor.allowCoreThreadTimeOut(true);
+        ExecutorService monitored = ExecutorServiceMetrics.monitor(meterRegistry, executor, "ingest.persistence");
+        return Schedulers.fromExecutorService(monitored, "ingest-persistence");
+    }
+}
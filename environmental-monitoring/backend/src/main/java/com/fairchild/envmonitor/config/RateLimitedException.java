@@ -0,0 +1,28 @@
+package com.fairchild.envmonitor.config;
+
+import java.time.Duration;
+
+/**
+ * Signals that a request was not sent because its client-side rate-limit
+ * slot lay further out than the caller was willing to wait. Nothing reached
+ * the network and no slot was reserved, so callers count it as skipped.
+ */
+public class RateLimitedException extends RuntimeException {
+
+    private final String host;
+    private final Duration wait;
+
+    public RateLimitedException(String clientName, String host, Duration wait) {
+        super("Next " + clientName + " slot for " + host + " is " + wait.toMillis() + " ms away");
+        this.host = host;
+        this.wait = wait;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public Duration getWait() {
+        return wait;
+    }
+}
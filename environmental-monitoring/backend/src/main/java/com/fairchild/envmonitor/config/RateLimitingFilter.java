@@ -0,0 +1,196 @@
+package com.fairchild.envmonitor.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Client-side throttle for one upstream API. Each target host gets a token
+ * bucket of {@code requestsPerSecond} with room for {@code burst} back-to-back
+ * requests. A request that finds the bucket empty is not failed but delayed
+ * (without blocking a thread) until its slot comes up, and a request
+ * cancelled while still waiting hands its slot back.
+ *
+ * <p>Callers may bound the wait by putting a {@link Duration} under
+ * {@link #MAX_WAIT} in the Reactor context: a request whose slot is further
+ * out fails at once with {@link RateLimitedException} and reserves nothing.
+ * An {@link AtomicLong} under {@link #WAIT_ACCUMULATOR} is incremented by
+ * every wait, so a deadline around the call can leave that time out.
+ *
+ * <p>A 429 or 503 response pauses the whole host for the duration given in
+ * its {@code Retry-After} header (seconds or an HTTP date), or for
+ * {@code defaultPause} on a 429 without one. Requests issued during the
+ * pause are held back until it ends.
+ */
+public class RateLimitingFilter implements ExchangeFilterFunction {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitingFilter.class);
+
+    public static final String MAX_WAIT = RateLimitingFilter.class.getName() + ".MAX_WAIT";
+    public static final String WAIT_ACCUMULATOR = RateLimitingFilter.class.getName() + ".WAIT_ACCUMULATOR";
+
+    private final String name;
+    private final long intervalNanos;
+    private final long burstToleranceNanos;
+    private final Duration defaultPause;
+    private final Map<String, HostBucket> buckets = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitingFilter(String name, double requestsPerSecond, int burst, Duration defaultPause,
+            MeterRegistry meterRegistry) {
+        if (requestsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate limit for " + name + " must allow at least one request");
+        }
+        this.name = name;
+        this.intervalNanos = (long) (1_000_000_000L / requestsPerSecond);
+        this.burstToleranceNanos = intervalNanos * (burst - 1);
+        this.defaultPause = defaultPause;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            HostBucket bucket = buckets.computeIfAbsent(request.url().getHost(), this::createBucket);
+            long maxWaitNanos = context.<Duration>getOrEmpty(MAX_WAIT).map(Duration::toNanos).orElse(Long.MAX_VALUE);
+            long delayNanos = bucket.reserve(maxWaitNanos);
+            if (delayNanos > maxWaitNanos) {
+                return Mono.error(new RateLimitedException(name, bucket.host, Duration.ofNanos(delayNanos)));
+            }
+            bucket.delayTimer.record(Math.max(0, delayNanos), TimeUnit.NANOSECONDS);
+            Mono<ClientResponse> exchange = next.exchange(request)
+                    .doOnNext(bucket::onResponse);
+            if (delayNanos <= 0) {
+                return exchange;
+            }
+            logger.trace("Delaying request to {} by {} ms", request.url().getHost(), delayNanos / 1_000_000);
+            context.<AtomicLong>getOrEmpty(WAIT_ACCUMULATOR).ifPresent(waited -> waited.addAndGet(delayNanos));
+            // Cancelling the delay means the exchange never started; once it has, the slot is spent
+            return Mono.delay(Duration.ofNanos(delayNanos))
+                    .doOnCancel(bucket::refund)
+                    .then(exchange);
+        });
+    }
+
+    private HostBucket createBucket(String host) {
+        return new HostBucket(host, Timer.builder("http.client.ratelimit.delay")
+                .description("Time requests were held back by the client-side rate limiter")
+                .tag("client", name)
+                .tag("host", host)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Generic cell rate algorithm: {@code theoreticalArrival} is when the
+     * bucket would be empty again if every reserved slot were used. Slots are
+     * reserved with a CAS loop, so callers never block or hold a lock.
+     */
+    private final class HostBucket {
+        final String host;
+        final Timer delayTimer;
+        final AtomicLong theoreticalArrival = new AtomicLong(System.nanoTime());
+        final AtomicLong pausedUntil = new AtomicLong(Long.MIN_VALUE);
+
+        HostBucket(String host, Timer delayTimer) {
+            this.host = host;
+            this.delayTimer = delayTimer;
+        }
+
+        /**
+         * Reserves the next slot and returns how long to wait for it. A slot
+         * more than {@code maxDelayNanos} away is not reserved; its delay is
+         * returned all the same so the caller can report it.
+         */
+        long reserve(long maxDelayNanos) {
+            while (true) {
+                long now = System.nanoTime();
+                long tat = theoreticalArrival.get();
+                long slot = Math.max(now, tat - burstToleranceNanos);
+                long paused = pausedUntil.get();
+                if (paused != Long.MIN_VALUE && paused - slot > 0) {
+                    slot = paused;
+                }
+                if (slot - now > maxDelayNanos) {
+                    return slot - now;
+                }
+                long newTat = Math.max(tat, slot) + intervalNanos;
+                if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                    return slot - now;
+                }
+            }
+        }
+
+        /**
+         * Gives back one reserved but unused slot. Requests queued behind it
+         * keep their own slots; the next reservation simply lands one
+         * interval earlier. Never moves the bucket into the past.
+         */
+        void refund() {
+            while (true) {
+                long now = System.nanoTime();
+                long tat = theoreticalArrival.get();
+                if (tat - now <= 0) {
+                    return;
+                }
+                long newTat = tat - intervalNanos - now > 0 ? tat - intervalNanos : now;
+                if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                    return;
+                }
+            }
+        }
+
+        void onResponse(ClientResponse response) {
+            int status = response.statusCode().value();
+            if (status != HttpStatus.TOO_MANY_REQUESTS.value() && status != HttpStatus.SERVICE_UNAVAILABLE.value()) {
+                return;
+            }
+            Duration pause = parseRetryAfter(response.headers().asHttpHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+            if (pause == null && status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                pause = defaultPause;
+            }
+            if (pause == null || pause.isNegative() || pause.isZero()) {
+                return;
+            }
+            long until = System.nanoTime() + pause.toNanos();
+            pausedUntil.accumulateAndGet(until, (current, proposed) ->
+                    current == Long.MIN_VALUE || proposed - current > 0 ? proposed : current);
+            logger.warn("{} answered {}; pausing requests to {} for {} s", name, status, host, pause.toSeconds());
+        }
+    }
+
+    static Duration parseRetryAfter(String retryAfter) {
+        if (retryAfter == null || retryAfter.isBlank()) {
+            return null;
+        }
+        String value = retryAfter.trim();
+        try {
+            return Duration.ofSeconds(Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            // Not delta-seconds; try the HTTP-date form
+        }
+        try {
+            ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+            return Duration.between(ZonedDateTime.now(date.getZone()), date);
+        } catch (DateTimeParseException e) {
+            logger.debug("Ignoring unparseable Retry-After header: {}", value);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.fairchild.envmonitor.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Opt-in virtual-thread execution model ({@code spring.threads.virtual.enabled},
+ * Java 21+). When enabled, Tomcat handles each request, the {@code @Async}
+ * executor runs each task, and the dashboard fans its queries out, on a
+ * virtual thread of its own. Thread count then stops being a limit: request
+ * concurrency is bounded by the Hikari pool ({@code maximum-pool-size}),
+ * which blocked virtual threads wait on without holding a carrier thread.
+ *
+ * <p>Disabled, Tomcat keeps its platform-thread pool and the dashboard its
+ * bounded pool (see {@link DashboardExecutorConfig}).
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = VirtualThreads.newExecutor("tomcat-vt-");
+        logger.info("Serving HTTP requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+}
@@ -1,14 +1,26 @@
 package com.fairchild.envmonitor.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
 import java.time.Duration;
+import java.util.List;
 
 @Configuration
 public class WebClientConfig {
 
+    private static final Logger logger = LoggerFactory.getLogger(WebClientConfig.class);
+
     @Value("${external-apis.weather-gov.base-url}")
     private String weatherGovBaseUrl;
 
@@ -24,43 +36,134 @@ public class WebClientConfig {
     @Value("${external-apis.air-quality.base-url}")
     private String airQualityBaseUrl;
 
+    @Value("${external-apis.weather-gov.rate-limit.requests-per-second:5}")
+    private double weatherGovRate;
+
+    @Value("${external-apis.weather-gov.rate-limit.burst:10}")
+    private int weatherGovBurst;
+
+    @Value("${external-apis.open-meteo.rate-limit.requests-per-second:10}")
+    private double openMeteoRate;
+
+    @Value("${external-apis.open-meteo.rate-limit.burst:20}")
+    private int openMeteoBurst;
+
+    @Value("${external-apis.marine-data.rate-limit.requests-per-second:5}")
+    private double marineDataRate;
+
+    @Value("${external-apis.marine-data.rate-limit.burst:10}")
+    private int marineDataBurst;
+
+    @Value("${external-apis.air-quality.rate-limit.requests-per-second:0.13}")
+    private double airQualityRate;
+
+    @Value("${external-apis.air-quality.rate-limit.burst:10}")
+    private int airQualityBurst;
+
+    @Value("${external-apis.nifc.rate-limit.requests-per-second:2}")
+    private double genericRate;
+
+    @Value("${external-apis.nifc.rate-limit.burst:5}")
+    private int genericBurst;
+
+    @Value("${external-apis.rate-limit.default-pause-ms:5000}")
+    private long defaultPauseMs;
+
+    @Value("${external-apis.http.warmup:true}")
+    private boolean warmup;
+
+    private final ConditionalGetFilter conditionalGetFilter;
+    private final MeterRegistry meterRegistry;
+    private final HttpClient upstreamHttpClient;
+    private final ClientHttpConnector connector;
+
+    public WebClientConfig(ConditionalGetFilter conditionalGetFilter, MeterRegistry meterRegistry,
+            HttpClient upstreamHttpClient) {
+        this.conditionalGetFilter = conditionalGetFilter;
+        this.meterRegistry = meterRegistry;
+        this.upstreamHttpClient = upstreamHttpClient;
+        this.connector = new ReactorClientHttpConnector(upstreamHttpClient);
+    }
+
     @Bean("weatherGovWebClient")
     public WebClient weatherGovWebClient() {
         return WebClient.builder()
+                .clientConnector(connector)
                 .baseUrl(weatherGovBaseUrl)
                 .defaultHeader("User-Agent", userAgent)
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
+                .filter(conditionalGetFilter)
+                .filter(rateLimiter("weather-gov", weatherGovRate, weatherGovBurst))
                 .build();
     }
 
     @Bean("openMeteoWebClient")
     public WebClient openMeteoWebClient() {
         return WebClient.builder()
+                .clientConnector(connector)
                 .baseUrl(openMeteoBaseUrl)
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
+                .filter(conditionalGetFilter)
+                .filter(rateLimiter("open-meteo", openMeteoRate, openMeteoBurst))
                 .build();
     }
 
     @Bean("marineDataWebClient")
     public WebClient marineDataWebClient() {
         return WebClient.builder()
+                .clientConnector(connector)
                 .baseUrl(marineDataBaseUrl)
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
+                .filter(conditionalGetFilter)
+                .filter(rateLimiter("marine-data", marineDataRate, marineDataBurst))
                 .build();
     }
 
     @Bean("airQualityWebClient")
     public WebClient airQualityWebClient() {
         return WebClient.builder()
+                .clientConnector(connector)
                 .baseUrl(airQualityBaseUrl)
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(1024 * 1024))
+                .filter(conditionalGetFilter)
+                .filter(rateLimiter("air-quality", airQualityRate, airQualityBurst))
                 .build();
     }
 
     @Bean("genericWebClient")
     public WebClient genericWebClient() {
         return WebClient.builder()
+                .clientConnector(connector)
                 .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(2 * 1024 * 1024))
+                .filter(rateLimiter("generic", genericRate, genericBurst))
                 .build();
     }
+
+    /**
+     * Resolves DNS and opens one pooled connection per upstream host once the
+     * application is up, so the first scheduled cycle does not pay for TLS
+     * handshakes on every host at once. The response itself is ignored.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpConnections() {
+        if (!warmup) {
+            return;
+        }
+        upstreamHttpClient.warmup().block();
+        for (String baseUrl : List.of(weatherGovBaseUrl, openMeteoBaseUrl, marineDataBaseUrl, airQualityBaseUrl)) {
+            upstreamHttpClient.headers(headers -> headers.set("User-Agent", userAgent))
+                    .head()
+                    .uri(baseUrl)
+                    .response()
+                    .timeout(Duration.ofSeconds(10))
+                    .subscribe(
+                            response -> logger.debug("Warmed up connection to {} ({})", baseUrl, response.status()),
+                            error -> logger.debug("Connection warm-up for {} failed: {}", baseUrl, error.getMessage()));
+        }
+    }
+
+    // Added after the conditional GET filter so that it sits closest to the network
+    private RateLimitingFilter rateLimiter(String name, double requestsPerSecond, int burst) {
+        return new RateLimitingFilter(name, requestsPerSecond, burst, Duration.ofMillis(defaultPauseMs), meterRegistry);
+    }
 }
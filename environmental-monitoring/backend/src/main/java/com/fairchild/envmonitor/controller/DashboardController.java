@@ -2,15 +2,25 @@ package com.fairchild.envmonitor.controller;
 
 import com.fairchild.envmonitor.dto.*;
 import com.fairchild.envmonitor.service.*;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 @RestController
@@ -27,6 +37,29 @@ public class DashboardController {
     private final FireDataService fireDataService;
     private final WebcamDataService webcamDataService;
     private final DataSourceStatusService dataSourceStatusService;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RefreshCoordinator refreshCoordinator;
+    private final DashboardQueryExecutor dashboardQueryExecutor;
+    private final LatestObservationStore latestObservationStore;
+    private final ObservationRollupService observationRollupService;
+
+    private static final String SECTION_OK = "OK";
+    private static final String SECTION_TIMED_OUT = "TIMED_OUT";
+    private static final String SECTION_FAILED = "FAILED";
+
+    private static final String SERIES_RAW = "raw";
+
+    private static final Map<String, String> SERIES_SOURCES = Map.of(
+            "weather", "weather.gov",
+            "meteo", "open-meteo",
+            "marine", "marine-data",
+            "airquality", "air-quality");
+
+    @Value("${dashboard.section-timeout-ms:2000}")
+    private long sectionTimeoutMs;
+
+    @Value("${dashboard.series.raw-max-hours:48}")
+    private int seriesRawMaxHours;
 
     public DashboardController(WeatherService weatherService,
             MeteoService meteoService,
@@ -34,7 +67,12 @@ public class DashboardController {
             AirQualityService airQualityService,
             FireDataService fireDataService,
             WebcamDataService webcamDataService,
-            DataSourceStatusService dataSourceStatusService) {
+            DataSourceStatusService dataSourceStatusService,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            RefreshCoordinator refreshCoordinator,
+            DashboardQueryExecutor dashboardQueryExecutor,
+            LatestObservationStore latestObservationStore,
+            ObservationRollupService observationRollupService) {
         this.weatherService = weatherService;
         this.meteoService = meteoService;
         this.marineDataService = marineDataService;
@@ -42,70 +80,82 @@ public class DashboardController {
         this.fireDataService = fireDataService;
         this.webcamDataService = webcamDataService;
         this.dataSourceStatusService = dataSourceStatusService;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.refreshCoordinator = refreshCoordinator;
+        this.dashboardQueryExecutor = dashboardQueryExecutor;
+        this.latestObservationStore = latestObservationStore;
+        this.observationRollupService = observationRollupService;
     }
 
+    /**
+     * Loads the dashboard sections in parallel on the dashboard bulkhead.
+     * Every section has until {@code dashboard.section-timeout-ms} after the
+     * request started; the response carries the sections that made it, and
+     * {@code sectionStatus} says which did not (TIMED_OUT or FAILED). Only
+     * complete responses are cached.
+     */
     @GetMapping("/data")
-    @Cacheable(value = "dashboardData", key = "#hours")
+    @Cacheable(value = "dashboardData", key = "#hours", unless = "#result.body == null || !#result.body.complete")
     public ResponseEntity<DashboardDataDto> getDashboardData(@RequestParam(defaultValue = "24") int hours) {
         logger.info("Fetching dashboard data for the last {} hours", hours);
 
         try {
+            long deadline = System.nanoTime() + sectionTimeoutMs * 1_000_000L;
+
             // Execute all data fetching operations in parallel
-            CompletableFuture<List<WeatherDataDto>> weatherFuture = CompletableFuture
-                    .supplyAsync(() -> weatherService.getRecentWeatherData(hours).stream()
+            CompletableFuture<List<WeatherDataDto>> weatherFuture = dashboardQueryExecutor
+                    .submit(() -> weatherService.getRecentWeatherData(hours).stream()
                             .map(this::convertToWeatherDto)
-                            .collect(Collectors.toList()));
+                            .collect(Collectors.toList()), deadline);
 
-            CompletableFuture<List<MeteoDataDto>> meteoFuture = CompletableFuture
-                    .supplyAsync(() -> meteoService.getRecentMeteoData(hours).stream()
+            CompletableFuture<List<MeteoDataDto>> meteoFuture = dashboardQueryExecutor
+                    .submit(() -> meteoService.getRecentMeteoData(hours).stream()
                             .map(this::convertToMeteoDto)
-                            .collect(Collectors.toList()));
+                            .collect(Collectors.toList()), deadline);
 
-            CompletableFuture<List<MarineDataDto>> marineFuture = CompletableFuture
-                    .supplyAsync(() -> marineDataService.getRecentMarineData(hours).stream()
+            CompletableFuture<List<MarineDataDto>> marineFuture = dashboardQueryExecutor
+                    .submit(() -> marineDataService.getRecentMarineData(hours).stream()
                             .map(this::convertToMarineDto)
-                            .collect(Collectors.toList()));
+                            .collect(Collectors.toList()), deadline);
 
-            CompletableFuture<List<AirQualityDataDto>> airQualityFuture = CompletableFuture
-                    .supplyAsync(() -> airQualityService.getRecentAirQualityData(hours).stream()
+            CompletableFuture<List<AirQualityDataDto>> airQualityFuture = dashboardQueryExecutor
+                    .submit(() -> airQualityService.getRecentAirQualityData(hours).stream()
                             .map(this::convertToAirQualityDto)
-                            .collect(Collectors.toList()));
+                            .collect(Collectors.toList()), deadline);
 
-            CompletableFuture<List<FireDataDto>> fireFuture = CompletableFuture
-                    .supplyAsync(() -> fireDataService.getRecentlyUpdatedFires(hours).stream()
+            CompletableFuture<List<FireDataDto>> fireFuture = dashboardQueryExecutor
+                    .submit(() -> fireDataService.getRecentlyUpdatedFires(hours).stream()
                             .map(this::convertToFireDto)
-                            .collect(Collectors.toList()));
+                            .collect(Collectors.toList()), deadline);
 
-            CompletableFuture<List<WebcamDataDto>> webcamFuture = CompletableFuture
-                    .supplyAsync(() -> webcamDataService.getActiveWebcams().stream()
+            CompletableFuture<List<WebcamDataDto>> webcamFuture = dashboardQueryExecutor
+                    .submit(() -> webcamDataService.getActiveWebcams().stream()
                             .map(this::convertToWebcamDto)
-                            .collect(Collectors.toList()));
+                            .collect(Collectors.toList()), deadline);
 
-            CompletableFuture<List<DataSourceStatusDto>> statusFuture = CompletableFuture
-                    .supplyAsync(() -> dataSourceStatusService.getAllDataSourceStatuses().stream()
+            CompletableFuture<List<DataSourceStatusDto>> statusFuture = dashboardQueryExecutor
+                    .submit(() -> dataSourceStatusService.getAllDataSourceStatuses().stream()
                             .map(this::convertToDataSourceStatusDto)
-                            .collect(Collectors.toList()));
-
-            // Wait for all futures to complete
-            CompletableFuture<Void> allFutures = CompletableFuture.allOf(
-                    weatherFuture, meteoFuture, marineFuture, airQualityFuture,
-                    fireFuture, webcamFuture, statusFuture);
-
-            allFutures.get(); // Wait for completion
+                            .collect(Collectors.toList()), deadline);
 
-            // Build response
+            // Build response from whatever finished by the deadline
+            Map<String, String> sectionStatus = new LinkedHashMap<>();
             DashboardDataDto dashboardData = new DashboardDataDto();
-            dashboardData.setRecentWeatherData(weatherFuture.get());
-            dashboardData.setRecentMeteoData(meteoFuture.get());
-            dashboardData.setRecentMarineData(marineFuture.get());
-            dashboardData.setRecentAirQualityData(airQualityFuture.get());
-            dashboardData.setRecentFireData(fireFuture.get());
-            dashboardData.setActiveWebcams(webcamFuture.get());
-            dashboardData.setDataSourceStatuses(statusFuture.get());
+            dashboardData.setRecentWeatherData(awaitSection("weather", weatherFuture, deadline, sectionStatus));
+            dashboardData.setRecentMeteoData(awaitSection("meteo", meteoFuture, deadline, sectionStatus));
+            dashboardData.setRecentMarineData(awaitSection("marine", marineFuture, deadline, sectionStatus));
+            dashboardData.setRecentAirQualityData(
+                    awaitSection("airQuality", airQualityFuture, deadline, sectionStatus));
+            dashboardData.setRecentFireData(awaitSection("fire", fireFuture, deadline, sectionStatus));
+            dashboardData.setActiveWebcams(awaitSection("webcams", webcamFuture, deadline, sectionStatus));
+            dashboardData.setDataSourceStatuses(
+                    awaitSection("dataSourceStatuses", statusFuture, deadline, sectionStatus));
+            dashboardData.setSectionStatus(sectionStatus);
+            dashboardData.setComplete(sectionStatus.values().stream().allMatch(SECTION_OK::equals));
 
             return ResponseEntity.ok(dashboardData);
 
-        } catch (InterruptedException | ExecutionException e) {
+        } catch (InterruptedException e) {
             logger.error("Error fetching dashboard data", e);
             Thread.currentThread().interrupt();
             return ResponseEntity.internalServerError().build();
@@ -115,32 +165,147 @@ public class DashboardController {
         }
     }
 
+    private <T> T awaitSection(String section, CompletableFuture<T> future, long deadline,
+            Map<String, String> sectionStatus) throws InterruptedException {
+        try {
+            T result = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            sectionStatus.put(section, SECTION_OK);
+            return result;
+        } catch (TimeoutException e) {
+            // The statement timeout cancels the query itself on the server
+            future.cancel(true);
+            logger.warn("Dashboard section {} missed its {} ms deadline", section, sectionTimeoutMs);
+            sectionStatus.put(section, SECTION_TIMED_OUT);
+        } catch (ExecutionException e) {
+            if (isTimeout(e.getCause())) {
+                logger.warn("Dashboard section {} missed its {} ms deadline", section, sectionTimeoutMs);
+                sectionStatus.put(section, SECTION_TIMED_OUT);
+            } else {
+                logger.error("Dashboard section {} failed: {}", section, e.getCause().getMessage());
+                sectionStatus.put(section, SECTION_FAILED);
+            }
+        }
+        return null;
+    }
+
+    private static boolean isTimeout(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException || cause instanceof QueryTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Newest reading of every station, for the dashboard's current-conditions
+     * tiles. Served from the {@link LatestObservationStore} without touching
+     * the database, so it is neither cached nor run on the bulkhead.
+     */
+    @GetMapping("/latest")
+    public ResponseEntity<LatestObservationsDto> getLatestObservations() {
+        LatestObservationsDto latest = new LatestObservationsDto();
+        latest.setWeatherData(latestObservationStore.getLatestWeather().stream()
+                .map(this::convertToWeatherDto)
+                .collect(Collectors.toList()));
+        latest.setMarineData(latestObservationStore.getLatestMarine().stream()
+                .map(this::convertToMarineDto)
+                .collect(Collectors.toList()));
+        latest.setAirQualityData(latestObservationStore.getLatestAirQuality().stream()
+                .map(this::convertToAirQualityDto)
+                .collect(Collectors.toList()));
+        return ResponseEntity.ok(latest);
+    }
+
+    /**
+     * One metric of one station over the last {@code hours}, at most
+     * {@code maxPoints} points. Windows up to {@code dashboard.series.raw-max-hours}
+     * are read raw and downsampled with LTTB, which keeps peaks and troughs;
+     * longer ones come from the hourly or daily rollups, at the finest
+     * resolution that fits, with each point carrying the bucket's average as
+     * {@code value} plus its min, max, last value and count.
+     * {@code resolution} ({@code raw}, {@code 1h} or {@code 1d}) overrides the
+     * choice. {@code metric} is the column name, e.g. {@code temperature} or
+     * {@code wave_height}.
+     */
+    @GetMapping("/series")
+    public ResponseEntity<?> getSeries(@RequestParam String source,
+            @RequestParam String stationId,
+            @RequestParam String metric,
+            @RequestParam(defaultValue = "24") int hours,
+            @RequestParam(defaultValue = "500") int maxPoints,
+            @RequestParam(required = false) String resolution) {
+        String sourceName = SERIES_SOURCES.get(source.toLowerCase());
+        if (sourceName == null) {
+            return ResponseEntity.badRequest().body("Unknown data source: " + source);
+        }
+        if (hours <= 0 || maxPoints < 3) {
+            return ResponseEntity.badRequest().body("hours must be positive and maxPoints at least 3");
+        }
+
+        try {
+            SeriesDto series = new SeriesDto();
+            series.setSource(source.toLowerCase());
+            series.setStationId(stationId);
+            series.setMetric(metric);
+            boolean raw = resolution == null ? hours <= seriesRawMaxHours : SERIES_RAW.equalsIgnoreCase(resolution);
+            if (raw) {
+                SampleSeries samples = observationRollupService.getRawSeries(sourceName, stationId, metric, hours)
+                        .downsample(maxPoints);
+                series.setResolution(SERIES_RAW);
+                series.setPoints(convertToSeriesPointDtos(samples));
+            } else {
+                ObservationRollupService.Resolution bucketSize = resolution == null
+                        ? observationRollupService.resolutionFor(hours, maxPoints)
+                        : ObservationRollupService.Resolution.fromCode(resolution);
+                series.setResolution(bucketSize.getCode());
+                series.setPoints(observationRollupService.getSeries(sourceName, stationId, metric, bucketSize, hours)
+                        .stream()
+                        .map(this::convertToSeriesPointDto)
+                        .collect(Collectors.toList()));
+            }
+            return ResponseEntity.ok(series);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Starts a refresh of one data source, or joins the one already running,
+     * and answers 202 with the job to poll at {@code /refresh/jobs/{jobId}}.
+     */
     @PostMapping("/refresh/{dataSource}")
-    public ResponseEntity<String> refreshDataSource(@PathVariable String dataSource) {
+    public ResponseEntity<?> refreshDataSource(@PathVariable String dataSource) {
         logger.info("Manual refresh requested for data source: {}", dataSource);
 
         try {
+            RefreshJob job;
             switch (dataSource.toLowerCase()) {
                 case "weather":
-                    weatherService.fetchAndStoreWeatherData().subscribe();
+                    job = refreshCoordinator.trigger("weather.gov", weatherService::fetchAndStoreWeatherData);
                     break;
                 case "meteo":
-                    meteoService.fetchAndStoreMeteoData().subscribe();
+                    job = refreshCoordinator.trigger("open-meteo", meteoService::fetchAndStoreMeteoData);
                     break;
                 case "marine":
-                    marineDataService.fetchAndStoreMarineData().subscribe();
+                    job = refreshCoordinator.trigger("marine-data", marineDataService::fetchAndStoreMarineData);
                     break;
                 case "airquality":
-                    airQualityService.fetchAndStoreAirQualityData().subscribe();
+                    job = refreshCoordinator.trigger("air-quality", airQualityService::fetchAndStoreAirQualityData);
                     break;
                 case "fire":
-                    fireDataService.fetchAndStoreFireData().subscribe();
+                    job = refreshCoordinator.trigger("fire-data", fireDataService::fetchAndStoreFireData);
                     break;
                 default:
                     return ResponseEntity.badRequest().body("Unknown data source: " + dataSource);
             }
 
-            return ResponseEntity.ok("Refresh initiated for " + dataSource);
+            return ResponseEntity.accepted()
+                    .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                            .path("/dashboard/refresh/jobs/{id}")
+                            .buildAndExpand(job.getId())
+                            .toUri())
+                    .body(convertToRefreshJobDto(job));
 
         } catch (Exception e) {
             logger.error("Error refreshing data source: {}", dataSource, e);
@@ -148,6 +313,13 @@ public class DashboardController {
         }
     }
 
+    @GetMapping("/refresh/jobs/{jobId}")
+    public ResponseEntity<RefreshJobDto> getRefreshJob(@PathVariable String jobId) {
+        return refreshCoordinator.getJob(jobId)
+                .map(job -> ResponseEntity.ok(convertToRefreshJobDto(job)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     // Conversion methods
     private WeatherDataDto convertToWeatherDto(com.fairchild.envmonitor.entity.WeatherData entity) {
         WeatherDataDto dto = new WeatherDataDto();
@@ -183,13 +355,38 @@ public class DashboardController {
 
     // Add similar conversion methods for other DTOs...
     private MarineDataDto convertToMarineDto(com.fairchild.envmonitor.entity.MarineData entity) {
-        // Implementation similar to above
-        return new MarineDataDto();
+        MarineDataDto dto = new MarineDataDto();
+        dto.setId(entity.getId());
+        dto.setStationId(entity.getStationId());
+        dto.setLatitude(entity.getLatitude());
+        dto.setLongitude(entity.getLongitude());
+        dto.setTimestamp(entity.getTimestamp());
+        dto.setWaterLevel(entity.getWaterLevel());
+        dto.setWaveHeight(entity.getWaveHeight());
+        dto.setWavePeriod(entity.getWavePeriod());
+        dto.setWaveDirection(entity.getWaveDirection());
+        dto.setWaterTemperature(entity.getWaterTemperature());
+        dto.setSalinity(entity.getSalinity());
+        dto.setCreatedAt(entity.getCreatedAt());
+        return dto;
     }
 
     private AirQualityDataDto convertToAirQualityDto(com.fairchild.envmonitor.entity.AirQualityData entity) {
-        // Implementation similar to above
-        return new AirQualityDataDto();
+        AirQualityDataDto dto = new AirQualityDataDto();
+        dto.setId(entity.getId());
+        dto.setStationId(entity.getStationId());
+        dto.setLatitude(entity.getLatitude());
+        dto.setLongitude(entity.getLongitude());
+        dto.setTimestamp(entity.getTimestamp());
+        dto.setPm25(entity.getPm25());
+        dto.setPm10(entity.getPm10());
+        dto.setNo2(entity.getNo2());
+        dto.setO3(entity.getO3());
+        dto.setSo2(entity.getSo2());
+        dto.setCo(entity.getCo());
+        dto.setAqi(entity.getAqi());
+        dto.setCreatedAt(entity.getCreatedAt());
+        return dto;
     }
 
     private FireDataDto convertToFireDto(com.fairchild.envmonitor.entity.FireData entity) {
@@ -203,7 +400,54 @@ public class DashboardController {
     }
 
     private DataSourceStatusDto convertToDataSourceStatusDto(com.fairchild.envmonitor.entity.DataSourceStatus entity) {
-        // Implementation similar to above
-        return new DataSourceStatusDto();
+        DataSourceStatusDto dto = new DataSourceStatusDto();
+        dto.setSourceName(entity.getSourceName());
+        dto.setLastSuccessfulFetch(entity.getLastSuccessfulFetch());
+        dto.setLastError(entity.getLastError());
+        dto.setErrorMessage(entity.getErrorMessage());
+        dto.setIsActive(entity.getIsActive());
+        dto.setFetchCount(entity.getFetchCount());
+        dto.setErrorCount(entity.getErrorCount());
+
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.get(entity.getSourceName());
+        dto.setCircuitState(circuitBreaker.getState().name());
+        Instant openUntil = circuitBreaker.getOpenUntil();
+        dto.setCircuitOpenUntil(openUntil != null ? openUntil.atOffset(ZoneOffset.UTC) : null);
+        return dto;
+    }
+
+    private SeriesPointDto convertToSeriesPointDto(com.fairchild.envmonitor.entity.ObservationRollup entity) {
+        SeriesPointDto dto = new SeriesPointDto();
+        dto.setTimestamp(entity.getBucketStart());
+        dto.setValue(entity.getSumValue() / entity.getSampleCount());
+        dto.setMin(entity.getMinValue());
+        dto.setMax(entity.getMaxValue());
+        dto.setLast(entity.getLastValue());
+        dto.setCount(entity.getSampleCount());
+        return dto;
+    }
+
+    private List<SeriesPointDto> convertToSeriesPointDtos(SampleSeries samples) {
+        List<SeriesPointDto> points = new ArrayList<>(samples.size());
+        for (int i = 0; i < samples.size(); i++) {
+            SeriesPointDto dto = new SeriesPointDto();
+            dto.setTimestamp(samples.getTimestamp(i));
+            dto.setValue(samples.getValue(i));
+            points.add(dto);
+        }
+        return points;
+    }
+
+    private RefreshJobDto convertToRefreshJobDto(RefreshJob job) {
+        RefreshJobDto dto = new RefreshJobDto();
+        dto.setJobId(job.getId());
+        dto.setSource(job.getSource());
+        dto.setStatus(job.getStatus().name());
+        dto.setStartedAt(job.getStartedAt());
+        dto.setFinishedAt(job.getFinishedAt());
+        dto.setResult(job.getResult());
+        dto.setErrorMessage(job.getErrorMessage());
+        dto.setTriggerCount(job.getTriggerCount());
+        return dto;
     }
 }
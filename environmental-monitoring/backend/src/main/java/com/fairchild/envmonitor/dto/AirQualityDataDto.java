@@ -1,5 +1,135 @@
 package com.fairchild.envmonitor.dto;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
 public class AirQualityDataDto {
+    private Long id;
+    private String stationId;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSZ")
+    private OffsetDateTime timestamp;
+
+    private BigDecimal pm25;
+    private BigDecimal pm10;
+    private BigDecimal no2;
+    private BigDecimal o3;
+    private BigDecimal so2;
+    private BigDecimal co;
+    private Integer aqi;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSZ")
+    private OffsetDateTime createdAt;
+
+    // Constructors
+    public AirQualityDataDto() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getStationId() {
+        return stationId;
+    }
+
+    public void setStationId(String stationId) {
+        this.stationId = stationId;
+    }
+
+    public BigDecimal getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(BigDecimal latitude) {
+        this.latitude = latitude;
+    }
+
+    public BigDecimal getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(BigDecimal longitude) {
+        this.longitude = longitude;
+    }
+
+    public OffsetDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(OffsetDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public BigDecimal getPm25() {
+        return pm25;
+    }
+
+    public void setPm25(BigDecimal pm25) {
+        this.pm25 = pm25;
+    }
+
+    public BigDecimal getPm10() {
+        return pm10;
+    }
+
+    public void setPm10(BigDecimal pm10) {
+        this.pm10 = pm10;
+    }
+
+    public BigDecimal getNo2() {
+        return no2;
+    }
+
+    public void setNo2(BigDecimal no2) {
+        this.no2 = no2;
+    }
+
+    public BigDecimal getO3() {
+        return o3;
+    }
+
+    public void setO3(BigDecimal o3) {
+        this.o3 = o3;
+    }
+
+    public BigDecimal getSo2() {
+        return so2;
+    }
+
+    public void setSo2(BigDecimal so2) {
+        this.so2 = so2;
+    }
+
+    public BigDecimal getCo() {
+        return co;
+    }
+
+    public void setCo(BigDecimal co) {
+        this.co = co;
+    }
+
+    public Integer getAqi() {
+        return aqi;
+    }
+
+    public void setAqi(Integer aqi) {
+        this.aqi = aqi;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
 
+    public void setCreatedAt(OffsetDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
 }
@@ -1,6 +1,7 @@
 package com.fairchild.envmonitor.dto;
 
 import java.util.List;
+import java.util.Map;
 
 public class DashboardDataDto {
     private List<WeatherDataDto> recentWeatherData;
@@ -10,6 +11,8 @@ public class DashboardDataDto {
     private List<FireDataDto> recentFireData;
     private List<WebcamDataDto> activeWebcams;
     private List<DataSourceStatusDto> dataSourceStatuses;
+    private Map<String, String> sectionStatus;
+    private boolean complete;
 
     // Constructors
     public DashboardDataDto() {
@@ -71,4 +74,20 @@ public class DashboardDataDto {
     public void setDataSourceStatuses(List<DataSourceStatusDto> dataSourceStatuses) {
         this.dataSourceStatuses = dataSourceStatuses;
     }
+
+    public Map<String, String> getSectionStatus() {
+        return sectionStatus;
+    }
+
+    public void setSectionStatus(Map<String, String> sectionStatus) {
+        this.sectionStatus = sectionStatus;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
 }
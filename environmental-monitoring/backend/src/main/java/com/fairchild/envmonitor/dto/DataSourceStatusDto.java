@@ -1,5 +1,100 @@
 package com.fairchild.envmonitor.dto;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.time.OffsetDateTime;
+
 public class DataSourceStatusDto {
+    private String sourceName;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSZ")
+    private OffsetDateTime lastSuccessfulFetch;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSZ")
+    private OffsetDateTime lastError;
+
+    private String errorMessage;
+    private Boolean isActive;
+    private Integer fetchCount;
+    private Integer errorCount;
+    private String circuitState;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSZ")
+    private OffsetDateTime circuitOpenUntil;
+
+    // Constructors
+    public DataSourceStatusDto() {
+    }
+
+    // Getters and Setters
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    public void setSourceName(String sourceName) {
+        this.sourceName = sourceName;
+    }
+
+    public OffsetDateTime getLastSuccessfulFetch() {
+        return lastSuccessfulFetch;
+    }
+
+    public void setLastSuccessfulFetch(OffsetDateTime lastSuccessfulFetch) {
+        this.lastSuccessfulFetch = lastSuccessfulFetch;
+    }
+
+    public OffsetDateTime getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(OffsetDateTime lastError) {
+        this.lastError = lastError;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+        this.errorMessage = errorMessage;
+    }
+
+    public Boolean getIsActive() {
+        return isActive;
+    }
+
+    public void setIsActive(Boolean isActive) {
+        this.isActive = isActive;
+    }
+
+    public Integer getFetchCount() {
+        return fetchCount;
+    }
+
+    public void setFetchCount(Integer fetchCount) {
+        this.fetchCount = fetchCount;
+    }
+
+    public Integer getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(Integer errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public String getCircuitState() {
+        return circuitState;
+    }
+
+    public void setCircuitState(String circuitState) {
+        this.circuitState = circuitState;
+    }
+
+    public OffsetDateTime getCircuitOpenUntil() {
+        return circuitOpenUntil;
+    }
 
+    public void setCircuitOpenUntil(OffsetDateTime circuitOpenUntil) {
+        this.circuitOpenUntil = circuitOpenUntil;
+    }
 }
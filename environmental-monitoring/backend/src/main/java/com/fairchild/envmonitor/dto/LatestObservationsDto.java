@@ -0,0 +1,38 @@
+package com.fairchild.envmonitor.dto;
+
+import java.util.List;
+
+public class LatestObservationsDto {
+    private List<WeatherDataDto> weatherData;
+    private List<MarineDataDto> marineData;
+    private List<AirQualityDataDto> airQualityData;
+
+    // Constructors
+    public LatestObservationsDto() {
+    }
+
+    // Getters and Setters
+    public List<WeatherDataDto> getWeatherData() {
+        return weatherData;
+    }
+
+    public void setWeatherData(List<WeatherDataDto> weatherData) {
+        this.weatherData = weatherData;
+    }
+
+    public List<MarineDataDto> getMarineData() {
+        return marineData;
+    }
+
+    public void setMarineData(List<MarineDataDto> marineData) {
+        this.marineData = marineData;
+    }
+
+    public List<AirQualityDataDto> getAirQualityData() {
+        return airQualityData;
+    }
+
+    public void setAirQualityData(List<AirQualityDataDto> airQualityData) {
+        this.airQualityData = airQualityData;
+    }
+}
@@ -1,5 +1,126 @@
 package com.fairchild.envmonitor.dto;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
 public class MarineDataDto {
+    private Long id;
+    private String stationId;
+    private BigDecimal latitude;
+    private BigDecimal longitude;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSZ")
+    private OffsetDateTime timestamp;
+
+    private BigDecimal waterLevel;
+    private BigDecimal waveHeight;
+    private BigDecimal wavePeriod;
+    private Integer waveDirection;
+    private BigDecimal waterTemperature;
+    private BigDecimal salinity;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSZ")
+    private OffsetDateTime createdAt;
+
+    // Constructors
+    public MarineDataDto() {
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getStationId() {
+        return stationId;
+    }
+
+    public void setStationId(String stationId) {
+        this.stationId = stationId;
+    }
+
+    public BigDecimal getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(BigDecimal latitude) {
+        this.latitude = latitude;
+    }
+
+    public BigDecimal getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(BigDecimal longitude) {
+        this.longitude = longitude;
+    }
+
+    public OffsetDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(OffsetDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public BigDecimal getWaterLevel() {
+        return waterLevel;
+    }
+
+    public void setWaterLevel(BigDecimal waterLevel) {
+        this.waterLevel = waterLevel;
+    }
+
+    public BigDecimal getWaveHeight() {
+        return waveHeight;
+    }
+
+    public void setWaveHeight(BigDecimal waveHeight) {
+        this.waveHeight = waveHeight;
+    }
+
+    public BigDecimal getWavePeriod() {
+        return wavePeriod;
+    }
+
+    public void setWavePeriod(BigDecimal wavePeriod) {
+        this.wavePeriod = wavePeriod;
+    }
+
+    public Integer getWaveDirection() {
+        return waveDirection;
+    }
+
+    public void setWaveDirection(Integer waveDirection) {
+        this.waveDirection = waveDirection;
+    }
+
+    public BigDecimal getWaterTemperature() {
+        return waterTemperature;
+    }
+
+    public void setWaterTemperature(BigDecimal waterTemperature) {
+        this.waterTemperature = waterTemperature;
+    }
+
+    public BigDecimal getSalinity() {
+        return salinity;
+    }
+
+    public void setSalinity(BigDecimal salinity) {
+        this.salinity = salinity;
+    }
+
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
 
+    public void setCreatedAt(OffsetDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
 }
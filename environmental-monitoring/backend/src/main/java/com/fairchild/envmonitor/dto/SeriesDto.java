@@ -0,0 +1,56 @@
+package com.fairchild.envmonitor.dto;
+
+import java.util.List;
+
+public class SeriesDto {
+    private String source;
+    private String stationId;
+    private String metric;
+    private String resolution;
+    private List<SeriesPointDto> points;
+
+    // Constructors
+    public SeriesDto() {
+    }
+
+    // Getters and Setters
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getStationId() {
+        return stationId;
+    }
+
+    public void setStationId(String stationId) {
+        this.stationId = stationId;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public void setMetric(String metric) {
+        this.metric = metric;
+    }
+
+    public String getResolution() {
+        return resolution;
+    }
+
+    public void setResolution(String resolution) {
+        this.resolution = resolution;
+    }
+
+    public List<SeriesPointDto> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<SeriesPointDto> points) {
+        this.points = points;
+    }
+}
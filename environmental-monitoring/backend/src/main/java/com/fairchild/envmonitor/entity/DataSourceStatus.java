@@ -32,6 +32,12 @@ public class DataSourceStatus {
     @Column(name = "error_count")
     private Integer errorCount = 0;
 
+    @Column(name = "sync_high_water_mark")
+    private OffsetDateTime syncHighWaterMark;
+
+    @Column(name = "last_full_sync")
+    private OffsetDateTime lastFullSync;
+
     // Constructors
     public DataSourceStatus() {
     }
@@ -100,4 +106,20 @@ public class DataSourceStatus {
     public void setErrorCount(Integer errorCount) {
         this.errorCount = errorCount;
     }
+
+    public OffsetDateTime getSyncHighWaterMark() {
+        return syncHighWaterMark;
+    }
+
+    public void setSyncHighWaterMark(OffsetDateTime syncHighWaterMark) {
+        this.syncHighWaterMark = syncHighWaterMark;
+    }
+
+    public OffsetDateTime getLastFullSync() {
+        return lastFullSync;
+    }
+
+    public void setLastFullSync(OffsetDateTime lastFullSync) {
+        this.lastFullSync = lastFullSync;
+    }
 }
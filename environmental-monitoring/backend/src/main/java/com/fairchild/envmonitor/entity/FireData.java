@@ -46,6 +46,28 @@ public class FireData {
     @Column(name = "incident_type", length = 100)
     private String incidentType;
 
+    @Column(name = "bbox_min_lat", precision = 10, scale = 7)
+    private BigDecimal bboxMinLat;
+
+    @Column(name = "bbox_max_lat", precision = 10, scale = 7)
+    private BigDecimal bboxMaxLat;
+
+    @Column(name = "bbox_min_lon", precision = 10, scale = 7)
+    private BigDecimal bboxMinLon;
+
+    @Column(name = "bbox_max_lon", precision = 10, scale = 7)
+    private BigDecimal bboxMaxLon;
+
+    // Simplified perimeters as encoded polylines, one per ring, space separated
+    @Column(name = "perimeter_fine", columnDefinition = "TEXT")
+    private String perimeterFine;
+
+    @Column(name = "perimeter_medium", columnDefinition = "TEXT")
+    private String perimeterMedium;
+
+    @Column(name = "perimeter_coarse", columnDefinition = "TEXT")
+    private String perimeterCoarse;
+
     @JdbcTypeCode(SqlTypes.JSON)
     @Column(name = "raw_data", columnDefinition = "jsonb")
     private JsonNode rawData;
@@ -183,4 +205,60 @@ public class FireData {
     public void setUpdatedAt(OffsetDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public BigDecimal getBboxMinLat() {
+        return bboxMinLat;
+    }
+
+    public void setBboxMinLat(BigDecimal bboxMinLat) {
+        this.bboxMinLat = bboxMinLat;
+    }
+
+    public BigDecimal getBboxMaxLat() {
+        return bboxMaxLat;
+    }
+
+    public void setBboxMaxLat(BigDecimal bboxMaxLat) {
+        this.bboxMaxLat = bboxMaxLat;
+    }
+
+    public BigDecimal getBboxMinLon() {
+        return bboxMinLon;
+    }
+
+    public void setBboxMinLon(BigDecimal bboxMinLon) {
+        this.bboxMinLon = bboxMinLon;
+    }
+
+    public BigDecimal getBboxMaxLon() {
+        return bboxMaxLon;
+    }
+
+    public void setBboxMaxLon(BigDecimal bboxMaxLon) {
+        this.bboxMaxLon = bboxMaxLon;
+    }
+
+    public String getPerimeterFine() {
+        return perimeterFine;
+    }
+
+    public void setPerimeterFine(String perimeterFine) {
+        this.perimeterFine = perimeterFine;
+    }
+
+    public String getPerimeterMedium() {
+        return perimeterMedium;
+    }
+
+    public void setPerimeterMedium(String perimeterMedium) {
+        this.perimeterMedium = perimeterMedium;
+    }
+
+    public String getPerimeterCoarse() {
+        return perimeterCoarse;
+    }
+
+    public void setPerimeterCoarse(String perimeterCoarse) {
+        this.perimeterCoarse = perimeterCoarse;
+    }
 }
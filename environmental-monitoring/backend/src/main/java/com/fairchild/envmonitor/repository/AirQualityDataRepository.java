@@ -9,7 +9,7 @@ import java.time.OffsetDateTime;
 import java.util.List;
 
 @Repository
-public interface AirQualityDataRepository extends JpaRepository<AirQualityData, Long> {
+public interface AirQualityDataRepository extends JpaRepository<AirQualityData, Long>, AirQualityDataRepositoryCustom {
 
     List<AirQualityData> findByStationIdOrderByTimestampDesc(String stationId);
 
@@ -22,9 +22,6 @@ public interface AirQualityDataRepository extends JpaRepository<AirQualityData,
     @Query("SELECT DISTINCT a.stationId FROM AirQualityData a ORDER BY a.stationId")
     List<String> findDistinctStationIds();
 
-    @Query("SELECT a FROM AirQualityData a WHERE a.stationId = :stationId ORDER BY a.timestamp DESC LIMIT 1")
-    AirQualityData findLatestByStationId(@Param("stationId") String stationId);
-
     @Query("SELECT a FROM AirQualityData a WHERE a.aqi > :threshold AND a.timestamp >= :since ORDER BY a.aqi DESC")
     List<AirQualityData> findHighAqiReadings(@Param("threshold") Integer threshold,
             @Param("since") OffsetDateTime since);
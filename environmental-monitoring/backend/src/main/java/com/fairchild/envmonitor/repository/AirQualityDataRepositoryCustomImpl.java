@@ -0,0 +1,65 @@
+package com.fairchild.envmonitor.repository;
+
+import com.fairchild.envmonitor.entity.AirQualityData;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public class AirQualityDataRepositoryCustomImpl extends BatchWriteSupport<AirQualityData>
+        implements AirQualityDataRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO air_quality_data (station_id, latitude, longitude, timestamp, pm25, pm10, " +
+            "no2, o3, so2, co, aqi, raw_data) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb)) " +
+            "ON CONFLICT DO NOTHING";
+
+    // What the latest-observation tiles show; raw_data stays in the table
+    private static final String LATEST_COLUMNS =
+            "id, station_id, latitude, longitude, timestamp, pm25, pm10, no2, o3, " +
+            "so2, co, aqi, created_at";
+
+    public AirQualityDataRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    @Override
+    public InsertResult insertIgnoringDuplicates(List<AirQualityData> rows) {
+        return batchInsert(INSERT_SQL, rows, (ps, row) -> {
+            ps.setString(1, row.getStationId());
+            setDecimal(ps, 2, row.getLatitude());
+            setDecimal(ps, 3, row.getLongitude());
+            setTimestamp(ps, 4, row.getTimestamp());
+            setDecimal(ps, 5, row.getPm25());
+            setDecimal(ps, 6, row.getPm10());
+            setDecimal(ps, 7, row.getNo2());
+            setDecimal(ps, 8, row.getO3());
+            setDecimal(ps, 9, row.getSo2());
+            setDecimal(ps, 10, row.getCo());
+            setInteger(ps, 11, row.getAqi());
+            setJson(ps, 12, row.getRawData());
+        });
+    }
+
+    @Override
+    public List<AirQualityData> findLatestPerStation(OffsetDateTime since) {
+        return findLatestPerStation("air_quality_data", LATEST_COLUMNS, since, (rs, rowNum) -> {
+            AirQualityData row = new AirQualityData();
+            row.setId(rs.getLong("id"));
+            row.setStationId(rs.getString("station_id"));
+            row.setLatitude(rs.getBigDecimal("latitude"));
+            row.setLongitude(rs.getBigDecimal("longitude"));
+            row.setTimestamp(getTimestamp(rs, "timestamp"));
+            row.setPm25(rs.getBigDecimal("pm25"));
+            row.setPm10(rs.getBigDecimal("pm10"));
+            row.setNo2(rs.getBigDecimal("no2"));
+            row.setO3(rs.getBigDecimal("o3"));
+            row.setSo2(rs.getBigDecimal("so2"));
+            row.setCo(rs.getBigDecimal("co"));
+            row.setAqi(getInteger(rs, "aqi"));
+            row.setCreatedAt(getTimestamp(rs, "created_at"));
+            return row;
+        });
+    }
+}
@@ -0,0 +1,116 @@
+package com.fairchild.envmonitor.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * Shared JDBC plumbing for the repositories' batch write fragments. Rows are
+ * sent as one JDBC batch and each statement's update count (1 written, 0
+ * skipped by {@code ON CONFLICT DO NOTHING}) is recorded per row.
+ */
+abstract class BatchWriteSupport<T> {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    protected BatchWriteSupport(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    protected JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    protected InsertResult batchInsert(String sql, List<T> rows, ParameterizedPreparedStatementSetter<T> setter) {
+        if (rows.isEmpty()) {
+            return InsertResult.empty();
+        }
+        boolean[] insertedRows = new boolean[rows.size()];
+        int index = 0;
+        for (int[] batch : jdbcTemplate.batchUpdate(sql, rows, rows.size(), setter)) {
+            for (int count : batch) {
+                insertedRows[index++] = count > 0;
+            }
+        }
+        return new InsertResult(insertedRows);
+    }
+
+    /**
+     * Newest row observed since {@code since} of every station in
+     * {@code table}, reading only {@code columns}. Postgres has no skip scan,
+     * so the distinct station ids are found with a recursive CTE that probes
+     * the (station_id, timestamp) unique index once per station, and each
+     * station's newest row with one backward probe of the same index.
+     */
+    protected List<T> findLatestPerStation(String table, String columns, OffsetDateTime since,
+            RowMapper<T> rowMapper) {
+        String sql =
+                "WITH RECURSIVE stations AS (" +
+                "(SELECT station_id FROM " + table + " ORDER BY station_id LIMIT 1) " +
+                "UNION ALL " +
+                "SELECT (SELECT t.station_id FROM " + table + " t WHERE t.station_id > s.station_id " +
+                "ORDER BY t.station_id LIMIT 1) " +
+                "FROM stations s WHERE s.station_id IS NOT NULL) " +
+                "SELECT latest.* FROM stations s " +
+                "CROSS JOIN LATERAL (SELECT " + columns + " FROM " + table + " t " +
+                "WHERE t.station_id = s.station_id AND t.timestamp >= ? " +
+                "ORDER BY t.timestamp DESC LIMIT 1) latest " +
+                "WHERE s.station_id IS NOT NULL";
+        return jdbcTemplate.query(sql, ps -> setTimestamp(ps, 1, since), rowMapper);
+    }
+
+    protected static OffsetDateTime getTimestamp(ResultSet rs, String column) throws SQLException {
+        return rs.getObject(column, OffsetDateTime.class);
+    }
+
+    protected static Integer getInteger(ResultSet rs, String column) throws SQLException {
+        return rs.getObject(column, Integer.class);
+    }
+
+    protected static void setDecimal(PreparedStatement ps, int index, BigDecimal value) throws SQLException {
+        if (value != null) {
+            ps.setBigDecimal(index, value);
+        } else {
+            ps.setNull(index, Types.NUMERIC);
+        }
+    }
+
+    protected static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+
+    protected static void setDate(PreparedStatement ps, int index, LocalDate value) throws SQLException {
+        if (value != null) {
+            ps.setObject(index, value);
+        } else {
+            ps.setNull(index, Types.DATE);
+        }
+    }
+
+    protected static void setTimestamp(PreparedStatement ps, int index, OffsetDateTime value) throws SQLException {
+        ps.setObject(index, value, Types.TIMESTAMP_WITH_TIMEZONE);
+    }
+
+    // Bound as text and cast in SQL with CAST(? AS jsonb)
+    protected static void setJson(PreparedStatement ps, int index, JsonNode value) throws SQLException {
+        if (value != null) {
+            ps.setString(index, value.toString());
+        } else {
+            ps.setNull(index, Types.VARCHAR);
+        }
+    }
+}
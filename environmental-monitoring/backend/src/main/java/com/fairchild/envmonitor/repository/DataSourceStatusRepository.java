@@ -2,11 +2,64 @@ package com.fairchild.envmonitor.repository;
 
 import com.fairchild.envmonitor.entity.DataSourceStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.OffsetDateTime;
 import java.util.Optional;
 
 @Repository
 public interface DataSourceStatusRepository extends JpaRepository<DataSourceStatus, Long> {
 
     Optional<DataSourceStatus> findBySourceName(String sourceName);
+
+    /**
+     * Adds counter deltas to a source's row in one atomic statement, creating
+     * the row if needed. Timestamps only move forward and a null argument
+     * leaves the stored value unchanged, so concurrent flushes from several
+     * nodes commute.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO data_source_status (source_name, is_active, fetch_count, error_count, " +
+            "last_successful_fetch, last_error, error_message) " +
+            "VALUES (:source, true, :fetches, :errors, CAST(:lastSuccess AS TIMESTAMP), " +
+            "CAST(:lastError AS TIMESTAMP), CAST(:errorMessage AS TEXT)) " +
+            "ON CONFLICT (source_name) DO UPDATE SET " +
+            "fetch_count = COALESCE(data_source_status.fetch_count, 0) + EXCLUDED.fetch_count, " +
+            "error_count = COALESCE(data_source_status.error_count, 0) + EXCLUDED.error_count, " +
+            "last_successful_fetch = GREATEST(data_source_status.last_successful_fetch, " +
+            "EXCLUDED.last_successful_fetch), " +
+            "error_message = CASE WHEN EXCLUDED.last_error IS NOT NULL AND (data_source_status.last_error IS NULL " +
+            "OR EXCLUDED.last_error > data_source_status.last_error) THEN EXCLUDED.error_message " +
+            "ELSE data_source_status.error_message END, " +
+            "last_error = GREATEST(data_source_status.last_error, EXCLUDED.last_error)",
+            nativeQuery = true)
+    int applyDeltas(@Param("source") String source, @Param("fetches") int fetches, @Param("errors") int errors,
+            @Param("lastSuccess") OffsetDateTime lastSuccess, @Param("lastError") OffsetDateTime lastError,
+            @Param("errorMessage") String errorMessage);
+
+    /**
+     * Moves a source's sync checkpoint without touching its counters; a null
+     * argument leaves the stored value unchanged. Returns 0 if the source has
+     * no row.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE data_source_status SET " +
+            "sync_high_water_mark = COALESCE(CAST(:highWaterMark AS TIMESTAMP WITH TIME ZONE), " +
+            "sync_high_water_mark), " +
+            "last_full_sync = COALESCE(CAST(:fullSyncAt AS TIMESTAMP WITH TIME ZONE), last_full_sync) " +
+            "WHERE source_name = :source",
+            nativeQuery = true)
+    int updateSyncCheckpoint(@Param("source") String source, @Param("highWaterMark") OffsetDateTime highWaterMark,
+            @Param("fullSyncAt") OffsetDateTime fullSyncAt);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE data_source_status SET is_active = :active WHERE source_name = :source",
+            nativeQuery = true)
+    int updateActive(@Param("source") String source, @Param("active") boolean active);
 }
@@ -11,7 +11,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface FireDataRepository extends JpaRepository<FireData, Long> {
+public interface FireDataRepository extends JpaRepository<FireData, Long>, FireDataRepositoryCustom {
 
     Optional<FireData> findByFireId(String fireId);
 
@@ -20,8 +20,9 @@ public interface FireDataRepository extends JpaRepository<FireData, Long> {
     @Query("SELECT f FROM FireData f WHERE f.updatedAt >= :since ORDER BY f.updatedAt DESC")
     List<FireData> findRecentlyUpdated(@Param("since") OffsetDateTime since);
 
-    @Query("SELECT f FROM FireData f WHERE f.latitude BETWEEN :latMin AND :latMax " +
-            "AND f.longitude BETWEEN :lonMin AND :lonMax ORDER BY f.updatedAt DESC")
+    // Perimeters overlapping the box, not just fires whose centroid falls inside it
+    @Query("SELECT f FROM FireData f WHERE f.bboxMinLat <= :latMax AND f.bboxMaxLat >= :latMin " +
+            "AND f.bboxMinLon <= :lonMax AND f.bboxMaxLon >= :lonMin ORDER BY f.updatedAt DESC")
     List<FireData> findByBoundingBox(
             @Param("latMin") BigDecimal latMin, @Param("latMax") BigDecimal latMax,
             @Param("lonMin") BigDecimal lonMin, @Param("lonMax") BigDecimal lonMax);
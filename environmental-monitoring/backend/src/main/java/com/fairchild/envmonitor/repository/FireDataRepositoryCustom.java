@@ -0,0 +1,21 @@
+package com.fairchild.envmonitor.repository;
+
+import com.fairchild.envmonitor.entity.FireData;
+import java.util.Collection;
+import java.util.List;
+
+public interface FireDataRepositoryCustom {
+
+    /**
+     * Inserts new fires and updates existing ones by fire_id in one JDBC
+     * batch. Attributes missing from an incoming row keep their stored value,
+     * and rows whose values have not changed are not rewritten.
+     */
+    UpsertResult upsertAll(List<FireData> rows);
+
+    /**
+     * Deletes every fire whose fire_id is not in {@code fireIds}. Used after a
+     * full sync to drop incidents the upstream feed no longer reports.
+     */
+    int deleteAllExcept(Collection<String> fireIds);
+}
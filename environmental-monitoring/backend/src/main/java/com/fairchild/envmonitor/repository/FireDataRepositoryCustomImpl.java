@@ -0,0 +1,120 @@
+package com.fairchild.envmonitor.repository;
+
+import com.fairchild.envmonitor.entity.FireData;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class FireDataRepositoryCustomImpl extends BatchWriteSupport<FireData>
+        implements FireDataRepositoryCustom {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO fire_data (fire_id, name, latitude, longitude, discovery_date, containment_date, " +
+            "fire_size_acres, fire_cause, fire_status, incident_type, bbox_min_lat, bbox_max_lat, " +
+            "bbox_min_lon, bbox_max_lon, perimeter_fine, perimeter_medium, perimeter_coarse, raw_data, " +
+            "created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb), " +
+            "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (fire_id) DO UPDATE SET " +
+            "name = COALESCE(EXCLUDED.name, fire_data.name), " +
+            "latitude = EXCLUDED.latitude, " +
+            "longitude = EXCLUDED.longitude, " +
+            "containment_date = COALESCE(EXCLUDED.containment_date, fire_data.containment_date), " +
+            "fire_size_acres = COALESCE(EXCLUDED.fire_size_acres, fire_data.fire_size_acres), " +
+            "fire_status = COALESCE(EXCLUDED.fire_status, fire_data.fire_status), " +
+            "bbox_min_lat = EXCLUDED.bbox_min_lat, " +
+            "bbox_max_lat = EXCLUDED.bbox_max_lat, " +
+            "bbox_min_lon = EXCLUDED.bbox_min_lon, " +
+            "bbox_max_lon = EXCLUDED.bbox_max_lon, " +
+            "perimeter_fine = EXCLUDED.perimeter_fine, " +
+            "perimeter_medium = EXCLUDED.perimeter_medium, " +
+            "perimeter_coarse = EXCLUDED.perimeter_coarse, " +
+            "raw_data = COALESCE(EXCLUDED.raw_data, fire_data.raw_data), " +
+            "updated_at = CURRENT_TIMESTAMP " +
+            // Leave unchanged fires alone so updated_at reflects real changes
+            "WHERE (fire_data.name, fire_data.latitude, fire_data.longitude, fire_data.containment_date, " +
+            "fire_data.fire_size_acres, fire_data.fire_status, fire_data.perimeter_fine, fire_data.raw_data) " +
+            "IS DISTINCT FROM " +
+            "(COALESCE(EXCLUDED.name, fire_data.name), EXCLUDED.latitude, EXCLUDED.longitude, " +
+            "COALESCE(EXCLUDED.containment_date, fire_data.containment_date), " +
+            "COALESCE(EXCLUDED.fire_size_acres, fire_data.fire_size_acres), " +
+            "COALESCE(EXCLUDED.fire_status, fire_data.fire_status), " +
+            "EXCLUDED.perimeter_fine, " +
+            "COALESCE(EXCLUDED.raw_data, fire_data.raw_data))";
+
+    private static final String EXISTING_IDS_SQL = "SELECT fire_id FROM fire_data WHERE fire_id = ANY(?)";
+
+    private static final String DELETE_EXCEPT_SQL =
+            "DELETE FROM fire_data WHERE fire_id IS NOT NULL AND NOT (fire_id = ANY(?))";
+
+    public FireDataRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    @Override
+    public UpsertResult upsertAll(List<FireData> rows) {
+        if (rows.isEmpty()) {
+            return UpsertResult.empty();
+        }
+        Set<String> existing = findExistingFireIds(rows);
+        InsertResult written = batchInsert(UPSERT_SQL, rows, (ps, row) -> {
+            ps.setString(1, row.getFireId());
+            ps.setString(2, row.getName());
+            setDecimal(ps, 3, row.getLatitude());
+            setDecimal(ps, 4, row.getLongitude());
+            setDate(ps, 5, row.getDiscoveryDate());
+            setDate(ps, 6, row.getContainmentDate());
+            setDecimal(ps, 7, row.getFireSizeAcres());
+            ps.setString(8, row.getFireCause());
+            ps.setString(9, row.getFireStatus());
+            ps.setString(10, row.getIncidentType());
+            setDecimal(ps, 11, row.getBboxMinLat());
+            setDecimal(ps, 12, row.getBboxMaxLat());
+            setDecimal(ps, 13, row.getBboxMinLon());
+            setDecimal(ps, 14, row.getBboxMaxLon());
+            ps.setString(15, row.getPerimeterFine());
+            ps.setString(16, row.getPerimeterMedium());
+            ps.setString(17, row.getPerimeterCoarse());
+            setJson(ps, 18, row.getRawData());
+        });
+
+        int inserted = 0;
+        int updated = 0;
+        int unchanged = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            // add() also covers a fire_id repeated later in the same batch
+            boolean isNew = existing.add(rows.get(i).getFireId());
+            if (!written.wasInserted(i)) {
+                unchanged++;
+            } else if (isNew) {
+                inserted++;
+            } else {
+                updated++;
+            }
+        }
+        return new UpsertResult(inserted, updated, unchanged);
+    }
+
+    @Override
+    public int deleteAllExcept(Collection<String> fireIds) {
+        String[] keep = fireIds.toArray(String[]::new);
+        return getJdbcTemplate().update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(DELETE_EXCEPT_SQL);
+            ps.setArray(1, connection.createArrayOf("varchar", keep));
+            return ps;
+        });
+    }
+
+    private Set<String> findExistingFireIds(List<FireData> rows) {
+        String[] fireIds = rows.stream().map(FireData::getFireId).distinct().toArray(String[]::new);
+        return new HashSet<>(getJdbcTemplate().query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(EXISTING_IDS_SQL);
+            ps.setArray(1, connection.createArrayOf("varchar", fireIds));
+            return ps;
+        }, (rs, rowNum) -> rs.getString(1)));
+    }
+}
@@ -0,0 +1,22 @@
+package com.fairchild.envmonitor.repository;
+
+import com.fairchild.envmonitor.entity.HttpValidator;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface HttpValidatorRepository extends JpaRepository<HttpValidator, Long> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO http_validator_cache (url, etag, last_modified, updated_at) " +
+            "VALUES (:url, CAST(:etag AS VARCHAR), CAST(:lastModified AS VARCHAR), CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (url) DO UPDATE SET etag = EXCLUDED.etag, " +
+            "last_modified = EXCLUDED.last_modified, updated_at = EXCLUDED.updated_at",
+            nativeQuery = true)
+    int upsert(@Param("url") String url, @Param("etag") String etag, @Param("lastModified") String lastModified);
+}
@@ -0,0 +1,62 @@
+package com.fairchild.envmonitor.repository;
+
+/**
+ * Row counts reported by an {@code INSERT ... ON CONFLICT DO NOTHING} write:
+ * rows that were new and rows that already existed under the natural key.
+ */
+public class InsertResult {
+
+    private final int inserted;
+    private final int duplicates;
+    private final boolean[] insertedRows;
+
+    public InsertResult(int inserted, int duplicates) {
+        this.inserted = inserted;
+        this.duplicates = duplicates;
+        this.insertedRows = null;
+    }
+
+    InsertResult(boolean[] insertedRows) {
+        int count = 0;
+        for (boolean row : insertedRows) {
+            if (row) {
+                count++;
+            }
+        }
+        this.inserted = count;
+        this.duplicates = insertedRows.length - count;
+        this.insertedRows = insertedRows;
+    }
+
+    public static InsertResult empty() {
+        return new InsertResult(0, 0);
+    }
+
+    public InsertResult plus(InsertResult other) {
+        return new InsertResult(inserted + other.inserted, duplicates + other.duplicates);
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * Whether the row at {@code index} of the written batch was new. Only
+     * available on results returned directly by a repository write.
+     */
+    public boolean wasInserted(int index) {
+        if (insertedRows == null) {
+            throw new IllegalStateException("Per-row results are not available on a combined result");
+        }
+        return insertedRows[index];
+    }
+
+    @Override
+    public String toString() {
+        return "inserted=" + inserted + " duplicates=" + duplicates;
+    }
+}
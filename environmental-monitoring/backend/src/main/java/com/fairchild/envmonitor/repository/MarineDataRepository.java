@@ -9,7 +9,7 @@ import java.time.OffsetDateTime;
 import java.util.List;
 
 @Repository
-public interface MarineDataRepository extends JpaRepository<MarineData, Long> {
+public interface MarineDataRepository extends JpaRepository<MarineData, Long>, MarineDataRepositoryCustom {
 
     List<MarineData> findByStationIdOrderByTimestampDesc(String stationId);
 
@@ -21,7 +21,4 @@ public interface MarineDataRepository extends JpaRepository<MarineData, Long> {
 
     @Query("SELECT DISTINCT m.stationId FROM MarineData m ORDER BY m.stationId")
     List<String> findDistinctStationIds();
-
-    @Query("SELECT m FROM MarineData m WHERE m.stationId = :stationId ORDER BY m.timestamp DESC LIMIT 1")
-    MarineData findLatestByStationId(@Param("stationId") String stationId);
 }
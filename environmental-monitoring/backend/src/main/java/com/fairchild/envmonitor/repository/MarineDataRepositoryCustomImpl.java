@@ -0,0 +1,64 @@
+package com.fairchild.envmonitor.repository;
+
+import com.fairchild.envmonitor.entity.MarineData;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public class MarineDataRepositoryCustomImpl extends BatchWriteSupport<MarineData>
+        implements MarineDataRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO marine_data (station_id, latitude, longitude, timestamp, water_level, wave_height, " +
+            "wave_period, wave_direction, water_temperature, salinity, raw_data) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb)) " +
+            "ON CONFLICT DO NOTHING";
+
+    // What the latest-observation tiles show; raw_data stays in the table
+    private static final String LATEST_COLUMNS =
+            "id, station_id, latitude, longitude, timestamp, water_level, " +
+            "wave_height, wave_period, wave_direction, water_temperature, " +
+            "salinity, created_at";
+
+    public MarineDataRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    @Override
+    public InsertResult insertIgnoringDuplicates(List<MarineData> rows) {
+        return batchInsert(INSERT_SQL, rows, (ps, row) -> {
+            ps.setString(1, row.getStationId());
+            setDecimal(ps, 2, row.getLatitude());
+            setDecimal(ps, 3, row.getLongitude());
+            setTimestamp(ps, 4, row.getTimestamp());
+            setDecimal(ps, 5, row.getWaterLevel());
+            setDecimal(ps, 6, row.getWaveHeight());
+            setDecimal(ps, 7, row.getWavePeriod());
+            setInteger(ps, 8, row.getWaveDirection());
+            setDecimal(ps, 9, row.getWaterTemperature());
+            setDecimal(ps, 10, row.getSalinity());
+            setJson(ps, 11, row.getRawData());
+        });
+    }
+
+    @Override
+    public List<MarineData> findLatestPerStation(OffsetDateTime since) {
+        return findLatestPerStation("marine_data", LATEST_COLUMNS, since, (rs, rowNum) -> {
+            MarineData row = new MarineData();
+            row.setId(rs.getLong("id"));
+            row.setStationId(rs.getString("station_id"));
+            row.setLatitude(rs.getBigDecimal("latitude"));
+            row.setLongitude(rs.getBigDecimal("longitude"));
+            row.setTimestamp(getTimestamp(rs, "timestamp"));
+            row.setWaterLevel(rs.getBigDecimal("water_level"));
+            row.setWaveHeight(rs.getBigDecimal("wave_height"));
+            row.setWavePeriod(rs.getBigDecimal("wave_period"));
+            row.setWaveDirection(getInteger(rs, "wave_direction"));
+            row.setWaterTemperature(rs.getBigDecimal("water_temperature"));
+            row.setSalinity(rs.getBigDecimal("salinity"));
+            row.setCreatedAt(getTimestamp(rs, "created_at"));
+            return row;
+        });
+    }
+}
@@ -10,7 +10,7 @@ import java.time.OffsetDateTime;
 import java.util.List;
 
 @Repository
-public interface MeteoDataRepository extends JpaRepository<MeteoData, Long> {
+public interface MeteoDataRepository extends JpaRepository<MeteoData, Long>, MeteoDataRepositoryCustom {
 
     @Query("SELECT m FROM MeteoData m WHERE m.latitude = :lat AND m.longitude = :lon ORDER BY m.timestamp DESC")
     List<MeteoData> findByLocationOrderByTimestampDesc(
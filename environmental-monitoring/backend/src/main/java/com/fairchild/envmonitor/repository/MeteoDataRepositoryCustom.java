@@ -0,0 +1,13 @@
+package com.fairchild.envmonitor.repository;
+
+import com.fairchild.envmonitor.entity.MeteoData;
+import java.util.List;
+
+public interface MeteoDataRepositoryCustom {
+
+    /**
+     * Inserts the rows in one JDBC batch, silently skipping any whose natural
+     * key (latitude, longitude, timestamp) is already stored.
+     */
+    InsertResult insertIgnoringDuplicates(List<MeteoData> rows);
+}
@@ -0,0 +1,36 @@
+package com.fairchild.envmonitor.repository;
+
+import com.fairchild.envmonitor.entity.MeteoData;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+public class MeteoDataRepositoryCustomImpl extends BatchWriteSupport<MeteoData>
+        implements MeteoDataRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO meteo_data (latitude, longitude, timestamp, temperature_2m, relative_humidity_2m, " +
+            "precipitation, wind_speed_10m, wind_direction_10m, uv_index, raw_data) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb)) " +
+            "ON CONFLICT DO NOTHING";
+
+    public MeteoDataRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    @Override
+    public InsertResult insertIgnoringDuplicates(List<MeteoData> rows) {
+        return batchInsert(INSERT_SQL, rows, (ps, row) -> {
+            setDecimal(ps, 1, row.getLatitude());
+            setDecimal(ps, 2, row.getLongitude());
+            setTimestamp(ps, 3, row.getTimestamp());
+            setDecimal(ps, 4, row.getTemperature2m());
+            setDecimal(ps, 5, row.getRelativeHumidity2m());
+            setDecimal(ps, 6, row.getPrecipitation());
+            setDecimal(ps, 7, row.getWindSpeed10m());
+            setInteger(ps, 8, row.getWindDirection10m());
+            setDecimal(ps, 9, row.getUvIndex());
+            setJson(ps, 10, row.getRawData());
+        });
+    }
+}
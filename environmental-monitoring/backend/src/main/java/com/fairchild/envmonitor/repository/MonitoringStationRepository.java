@@ -0,0 +1,25 @@
+package com.fairchild.envmonitor.repository;
+
+import com.fairchild.envmonitor.entity.MonitoringStation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface MonitoringStationRepository extends JpaRepository<MonitoringStation, Long> {
+
+    @Query("SELECT s FROM MonitoringStation s WHERE s.enabled = true " +
+            "ORDER BY s.sourceName, s.priority DESC, s.stationId")
+    List<MonitoringStation> findAllEnabled();
+
+    /**
+     * Digest of every row's polling-relevant columns. The registry reloads
+     * only when it changes, and it also notices edits made directly in SQL
+     * that do not touch updated_at.
+     */
+    @Query(value = "SELECT md5(COALESCE(string_agg(CONCAT_WS('|', id, source_name, station_id, name, " +
+            "latitude, longitude, enabled, priority, poll_interval_seconds), ',' ORDER BY id), '')) " +
+            "FROM monitoring_station", nativeQuery = true)
+    String findContentDigest();
+}
@@ -0,0 +1,25 @@
+package com.fairchild.envmonitor.repository;
+
+import com.fairchild.envmonitor.entity.ObservationRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+@Repository
+public interface ObservationRollupRepository extends JpaRepository<ObservationRollup, Long>,
+        ObservationRollupRepositoryCustom {
+
+    @Query("SELECT r FROM ObservationRollup r WHERE r.sourceName = :sourceName AND r.stationId = :stationId " +
+            "AND r.metric = :metric AND r.resolution = :resolution AND r.bucketStart >= :since " +
+            "ORDER BY r.bucketStart")
+    List<ObservationRollup> findSeries(@Param("sourceName") String sourceName,
+            @Param("stationId") String stationId,
+            @Param("metric") String metric,
+            @Param("resolution") String resolution,
+            @Param("since") OffsetDateTime since);
+
+    boolean existsByResolution(String resolution);
+}
@@ -0,0 +1,43 @@
+package com.fairchild.envmonitor.repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ObservationRollupRepositoryCustom {
+
+    /** Receives one raw sample at a time, unboxed. */
+    @FunctionalInterface
+    interface SampleHandler {
+        void accept(long epochMillis, double value);
+    }
+
+    /**
+     * Merges the deltas into their buckets in one JDBC batch: counts and sums
+     * are added, min/max widened, and the last value replaced only by a
+     * newer sample, so late observations land correctly in past buckets.
+     */
+    void applyDeltas(Collection<RollupDelta> deltas);
+
+    /**
+     * Recomputes from the raw observation table every bucket of
+     * {@code resolution} starting at or after {@code since} and ending by
+     * {@code until}, replacing what the incremental path stored. Both bounds
+     * must be bucket boundaries. {@code truncUnit} is the Postgres
+     * {@code date_trunc} unit of the resolution; {@code stationKey} is the
+     * SQL expression identifying a station in {@code table}. Returns the
+     * number of buckets written.
+     */
+    int rebuild(String sourceName, String table, String stationKey, List<String> columns,
+            String resolution, String truncUnit, OffsetDateTime since, OffsetDateTime until);
+
+    /**
+     * Streams the non-null values of {@code column} observed since
+     * {@code since} by the station matched by {@code stationFilter} (SQL
+     * with one placeholder per {@code stationParams} entry), oldest first.
+     * Rows are fetched in chunks, so this must run inside a transaction for
+     * the driver to use a cursor.
+     */
+    void streamSamples(String table, String stationFilter, Object[] stationParams, String column,
+            OffsetDateTime since, SampleHandler handler);
+}
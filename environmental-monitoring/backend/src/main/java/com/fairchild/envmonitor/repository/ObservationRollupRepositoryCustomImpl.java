@@ -0,0 +1,122 @@
+package com.fairchild.envmonitor.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.PreparedStatement;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ObservationRollupRepositoryCustomImpl extends BatchWriteSupport<RollupDelta>
+        implements ObservationRollupRepositoryCustom {
+
+    private static final String COLUMNS =
+            "source_name, station_id, metric, resolution, bucket_start, " +
+            "sample_count, min_value, max_value, sum_value, last_value, last_at";
+
+    private static final String CONFLICT_TARGET =
+            "ON CONFLICT (source_name, station_id, metric, resolution, bucket_start) DO UPDATE SET ";
+
+    private static final String MERGE_SQL =
+            "INSERT INTO observation_rollup (" + COLUMNS + ") " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            CONFLICT_TARGET +
+            "sample_count = observation_rollup.sample_count + EXCLUDED.sample_count, " +
+            "min_value = LEAST(observation_rollup.min_value, EXCLUDED.min_value), " +
+            "max_value = GREATEST(observation_rollup.max_value, EXCLUDED.max_value), " +
+            "sum_value = observation_rollup.sum_value + EXCLUDED.sum_value, " +
+            // A late observation must not replace a newer last value
+            "last_value = CASE WHEN EXCLUDED.last_at >= observation_rollup.last_at " +
+            "THEN EXCLUDED.last_value ELSE observation_rollup.last_value END, " +
+            "last_at = GREATEST(observation_rollup.last_at, EXCLUDED.last_at)";
+
+    private static final String REPLACE =
+            CONFLICT_TARGET +
+            "sample_count = EXCLUDED.sample_count, " +
+            "min_value = EXCLUDED.min_value, " +
+            "max_value = EXCLUDED.max_value, " +
+            "sum_value = EXCLUDED.sum_value, " +
+            "last_value = EXCLUDED.last_value, " +
+            "last_at = EXCLUDED.last_at";
+
+    // Same row order for every writer, so concurrent merges cannot deadlock each other
+    private static final Comparator<RollupDelta> KEY_ORDER = Comparator
+            .comparing(RollupDelta::getSourceName)
+            .thenComparing(RollupDelta::getStationId)
+            .thenComparing(RollupDelta::getMetric)
+            .thenComparing(RollupDelta::getResolution)
+            .thenComparing(RollupDelta::getBucketStart);
+
+    private static final int STREAM_FETCH_SIZE = 5000;
+
+    public ObservationRollupRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    @Override
+    public void applyDeltas(Collection<RollupDelta> deltas) {
+        List<RollupDelta> rows = new ArrayList<>(deltas);
+        rows.sort(KEY_ORDER);
+        batchInsert(MERGE_SQL, rows, (ps, row) -> {
+            ps.setString(1, row.getSourceName());
+            ps.setString(2, row.getStationId());
+            ps.setString(3, row.getMetric());
+            ps.setString(4, row.getResolution());
+            setTimestamp(ps, 5, row.getBucketStart());
+            ps.setInt(6, row.getSampleCount());
+            ps.setDouble(7, row.getMinValue());
+            ps.setDouble(8, row.getMaxValue());
+            ps.setDouble(9, row.getSumValue());
+            ps.setDouble(10, row.getLastValue());
+            setTimestamp(ps, 11, row.getLastAt());
+        });
+    }
+
+    @Override
+    public int rebuild(String sourceName, String table, String stationKey, List<String> columns,
+            String resolution, String truncUnit, OffsetDateTime since, OffsetDateTime until) {
+        String samples = columns.stream()
+                .map(column -> "('" + column + "', CAST(t." + column + " AS DOUBLE PRECISION))")
+                .collect(Collectors.joining(", "));
+        String sql =
+                "INSERT INTO observation_rollup (" + COLUMNS + ") " +
+                "SELECT ?, t.station_key, v.metric, ?, t.bucket_start, COUNT(*), MIN(v.value), MAX(v.value), " +
+                "SUM(v.value), (ARRAY_AGG(v.value ORDER BY t.observed_at DESC))[1], MAX(t.observed_at) " +
+                "FROM (SELECT " + stationKey + " AS station_key, timestamp AS observed_at, " +
+                "date_trunc('" + truncUnit + "', timestamp AT TIME ZONE 'UTC') AT TIME ZONE 'UTC' AS bucket_start, " +
+                String.join(", ", columns) + " " +
+                "FROM " + table + " WHERE timestamp >= ? AND timestamp < ?) t " +
+                "CROSS JOIN LATERAL (VALUES " + samples + ") AS v(metric, value) " +
+                "WHERE v.value IS NOT NULL " +
+                "GROUP BY t.station_key, v.metric, t.bucket_start " +
+                REPLACE;
+        return getJdbcTemplate().update(sql, ps -> {
+            ps.setString(1, sourceName);
+            ps.setString(2, resolution);
+            setTimestamp(ps, 3, since);
+            setTimestamp(ps, 4, until);
+        });
+    }
+
+    @Override
+    public void streamSamples(String table, String stationFilter, Object[] stationParams, String column,
+            OffsetDateTime since, SampleHandler handler) {
+        String sql = "SELECT timestamp, " + column + " FROM " + table + " " +
+                "WHERE " + stationFilter + " AND timestamp >= ? AND " + column + " IS NOT NULL " +
+                "ORDER BY timestamp";
+        getJdbcTemplate().query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            int index = 1;
+            for (Object param : stationParams) {
+                ps.setObject(index++, param);
+            }
+            setTimestamp(ps, index, since);
+            return ps;
+        }, (RowCallbackHandler) rs -> handler.accept(rs.getTimestamp(1).getTime(), rs.getDouble(2)));
+    }
+}
@@ -0,0 +1,88 @@
+package com.fairchild.envmonitor.repository;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Samples of one metric of one station that fall into one rollup bucket,
+ * pre-aggregated so they can be merged into {@code observation_rollup}
+ * with a single upsert.
+ */
+public class RollupDelta {
+
+    private final String sourceName;
+    private final String stationId;
+    private final String metric;
+    private final String resolution;
+    private final OffsetDateTime bucketStart;
+
+    private int sampleCount;
+    private double minValue = Double.POSITIVE_INFINITY;
+    private double maxValue = Double.NEGATIVE_INFINITY;
+    private double sumValue;
+    private double lastValue;
+    private OffsetDateTime lastAt;
+
+    public RollupDelta(String sourceName, String stationId, String metric, String resolution,
+            OffsetDateTime bucketStart) {
+        this.sourceName = sourceName;
+        this.stationId = stationId;
+        this.metric = metric;
+        this.resolution = resolution;
+        this.bucketStart = bucketStart;
+    }
+
+    public void add(double value, OffsetDateTime at) {
+        sampleCount++;
+        minValue = Math.min(minValue, value);
+        maxValue = Math.max(maxValue, value);
+        sumValue += value;
+        if (lastAt == null || !at.isBefore(lastAt)) {
+            lastValue = value;
+            lastAt = at;
+        }
+    }
+
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    public String getStationId() {
+        return stationId;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    public String getResolution() {
+        return resolution;
+    }
+
+    public OffsetDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    public double getMinValue() {
+        return minValue;
+    }
+
+    public double getMaxValue() {
+        return maxValue;
+    }
+
+    public double getSumValue() {
+        return sumValue;
+    }
+
+    public double getLastValue() {
+        return lastValue;
+    }
+
+    public OffsetDateTime getLastAt() {
+        return lastAt;
+    }
+}
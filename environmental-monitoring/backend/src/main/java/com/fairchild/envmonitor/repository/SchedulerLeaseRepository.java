@@ -0,0 +1,37 @@
+package com.fairchild.envmonitor.repository;
+
+import com.fairchild.envmonitor.entity.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, Long> {
+
+    /**
+     * Takes the lease on a source, or extends it if {@code holder} already
+     * has it. Succeeds (returns 1) only if the lease is free, expired or
+     * already ours; expiry is judged by the database clock, so node clocks
+     * need not agree.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO scheduler_lease (source_name, holder, acquired_at, expires_at, updated_at) " +
+            "VALUES (:source, :holder, CURRENT_TIMESTAMP, " +
+            "CURRENT_TIMESTAMP + CAST(:ttlMs AS BIGINT) * INTERVAL '1 millisecond', CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (source_name) DO UPDATE SET holder = EXCLUDED.holder, " +
+            "acquired_at = CASE WHEN scheduler_lease.holder = EXCLUDED.holder " +
+            "THEN scheduler_lease.acquired_at ELSE EXCLUDED.acquired_at END, " +
+            "expires_at = EXCLUDED.expires_at, updated_at = EXCLUDED.updated_at " +
+            "WHERE scheduler_lease.holder = EXCLUDED.holder OR scheduler_lease.expires_at < CURRENT_TIMESTAMP",
+            nativeQuery = true)
+    int tryAcquire(@Param("source") String source, @Param("holder") String holder, @Param("ttlMs") long ttlMs);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM scheduler_lease WHERE holder = :holder", nativeQuery = true)
+    int releaseAll(@Param("holder") String holder);
+}
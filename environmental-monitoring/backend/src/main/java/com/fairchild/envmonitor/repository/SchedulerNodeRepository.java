@@ -0,0 +1,40 @@
+package com.fairchild.envmonitor.repository;
+
+import com.fairchild.envmonitor.entity.SchedulerNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+
+@Repository
+public interface SchedulerNodeRepository extends JpaRepository<SchedulerNode, Long> {
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO scheduler_node (node_id, started_at, heartbeat_at) " +
+            "VALUES (:nodeId, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (node_id) DO UPDATE SET heartbeat_at = EXCLUDED.heartbeat_at",
+            nativeQuery = true)
+    int heartbeat(@Param("nodeId") String nodeId);
+
+    /** Nodes whose last heartbeat is at most {@code ttlMs} old by the database clock. */
+    @Query(value = "SELECT node_id FROM scheduler_node " +
+            "WHERE heartbeat_at > CURRENT_TIMESTAMP - CAST(:ttlMs AS BIGINT) * INTERVAL '1 millisecond' " +
+            "ORDER BY node_id", nativeQuery = true)
+    List<String> findLiveNodeIds(@Param("ttlMs") long ttlMs);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM scheduler_node " +
+            "WHERE heartbeat_at < CURRENT_TIMESTAMP - CAST(:olderThanMs AS BIGINT) * INTERVAL '1 millisecond'",
+            nativeQuery = true)
+    int deleteExpired(@Param("olderThanMs") long olderThanMs);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM scheduler_node WHERE node_id = :nodeId", nativeQuery = true)
+    int deleteByNodeId(@Param("nodeId") String nodeId);
+}
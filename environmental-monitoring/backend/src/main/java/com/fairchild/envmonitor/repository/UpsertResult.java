@@ -0,0 +1,48 @@
+package com.fairchild.envmonitor.repository;
+
+/**
+ * Row counts reported by an {@code INSERT ... ON CONFLICT DO UPDATE} write:
+ * rows that were new, existing rows whose values changed, and existing rows
+ * that already matched the incoming values and were left untouched.
+ */
+public class UpsertResult {
+
+    private final int inserted;
+    private final int updated;
+    private final int unchanged;
+
+    public UpsertResult(int inserted, int updated, int unchanged) {
+        this.inserted = inserted;
+        this.updated = updated;
+        this.unchanged = unchanged;
+    }
+
+    public static UpsertResult empty() {
+        return new UpsertResult(0, 0, 0);
+    }
+
+    public UpsertResult plus(UpsertResult other) {
+        return new UpsertResult(inserted + other.inserted, updated + other.updated, unchanged + other.unchanged);
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public int getUpdated() {
+        return updated;
+    }
+
+    public int getUnchanged() {
+        return unchanged;
+    }
+
+    public int getTotal() {
+        return inserted + updated + unchanged;
+    }
+
+    @Override
+    public String toString() {
+        return "inserted=" + inserted + " updated=" + updated + " unchanged=" + unchanged;
+    }
+}
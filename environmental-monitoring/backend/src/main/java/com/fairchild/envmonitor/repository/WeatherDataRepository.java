@@ -9,7 +9,7 @@ import java.time.OffsetDateTime;
 import java.util.List;
 
 @Repository
-public interface WeatherDataRepository extends JpaRepository<WeatherData, Long> {
+public interface WeatherDataRepository extends JpaRepository<WeatherData, Long>, WeatherDataRepositoryCustom {
 
     List<WeatherData> findByStationIdOrderByTimestampDesc(String stationId);
 
@@ -21,7 +21,4 @@ public interface WeatherDataRepository extends JpaRepository<WeatherData, Long>
 
     @Query("SELECT DISTINCT w.stationId FROM WeatherData w ORDER BY w.stationId")
     List<String> findDistinctStationIds();
-
-    @Query("SELECT w FROM WeatherData w WHERE w.stationId = :stationId ORDER BY w.timestamp DESC LIMIT 1")
-    WeatherData findLatestByStationId(@Param("stationId") String stationId);
 }
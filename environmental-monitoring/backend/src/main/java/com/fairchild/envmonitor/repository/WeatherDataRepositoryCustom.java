@@ -0,0 +1,20 @@
+package com.fairchild.envmonitor.repository;
+
+import com.fairchild.envmonitor.entity.WeatherData;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public interface WeatherDataRepositoryCustom {
+
+    /**
+     * Inserts the rows in one JDBC batch, silently skipping any whose natural
+     * key (station_id, timestamp) is already stored.
+     */
+    InsertResult insertIgnoringDuplicates(List<WeatherData> rows);
+
+    /**
+     * Newest observation of every station that reported since {@code since},
+     * without {@code rawData}.
+     */
+    List<WeatherData> findLatestPerStation(OffsetDateTime since);
+}
@@ -0,0 +1,62 @@
+package com.fairchild.envmonitor.repository;
+
+import com.fairchild.envmonitor.entity.WeatherData;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public class WeatherDataRepositoryCustomImpl extends BatchWriteSupport<WeatherData>
+        implements WeatherDataRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO weather_data (station_id, timestamp, temperature, humidity, pressure, " +
+            "wind_speed, wind_direction, visibility, weather_conditions, raw_data) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb)) " +
+            "ON CONFLICT DO NOTHING";
+
+    // What the latest-observation tiles show; raw_data stays in the table
+    private static final String LATEST_COLUMNS =
+            "id, station_id, timestamp, temperature, humidity, pressure, " +
+            "wind_speed, wind_direction, visibility, weather_conditions, " +
+            "created_at";
+
+    public WeatherDataRepositoryCustomImpl(JdbcTemplate jdbcTemplate) {
+        super(jdbcTemplate);
+    }
+
+    @Override
+    public InsertResult insertIgnoringDuplicates(List<WeatherData> rows) {
+        return batchInsert(INSERT_SQL, rows, (ps, row) -> {
+            ps.setString(1, row.getStationId());
+            setTimestamp(ps, 2, row.getTimestamp());
+            setDecimal(ps, 3, row.getTemperature());
+            setDecimal(ps, 4, row.getHumidity());
+            setDecimal(ps, 5, row.getPressure());
+            setDecimal(ps, 6, row.getWindSpeed());
+            setInteger(ps, 7, row.getWindDirection());
+            setDecimal(ps, 8, row.getVisibility());
+            ps.setString(9, row.getWeatherConditions());
+            setJson(ps, 10, row.getRawData());
+        });
+    }
+
+    @Override
+    public List<WeatherData> findLatestPerStation(OffsetDateTime since) {
+        return findLatestPerStation("weather_data", LATEST_COLUMNS, since, (rs, rowNum) -> {
+            WeatherData row = new WeatherData();
+            row.setId(rs.getLong("id"));
+            row.setStationId(rs.getString("station_id"));
+            row.setTimestamp(getTimestamp(rs, "timestamp"));
+            row.setTemperature(rs.getBigDecimal("temperature"));
+            row.setHumidity(rs.getBigDecimal("humidity"));
+            row.setPressure(rs.getBigDecimal("pressure"));
+            row.setWindSpeed(rs.getBigDecimal("wind_speed"));
+            row.setWindDirection(getInteger(rs, "wind_direction"));
+            row.setVisibility(rs.getBigDecimal("visibility"));
+            row.setWeatherConditions(rs.getString("weather_conditions"));
+            row.setCreatedAt(getTimestamp(rs, "created_at"));
+            return row;
+        });
+    }
+}
@@ -1,61 +1,42 @@
 package com.fairchild.envmonitor.scheduler;
 
-import com.fairchild.envmonitor.service.*;
+import com.fairchild.envmonitor.service.FireDataService;
+import com.fairchild.envmonitor.service.RefreshCoordinator;
+import com.fairchild.envmonitor.service.SchedulerLeaseService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+/**
+ * Whole-source polls. Station-based sources are polled station by station
+ * by {@link StationPollWheel}.
+ */
 @Component
 public class DataFetchScheduler {
 
     private static final Logger logger = LoggerFactory.getLogger(DataFetchScheduler.class);
 
-    private final WeatherService weatherService;
-    private final MeteoService meteoService;
-    private final MarineDataService marineDataService;
-    private final AirQualityService airQualityService;
     private final FireDataService fireDataService;
+    private final RefreshCoordinator refreshCoordinator;
+    private final SchedulerLeaseService schedulerLeaseService;
 
-    public DataFetchScheduler(WeatherService weatherService,
-            MeteoService meteoService,
-            MarineDataService marineDataService,
-            AirQualityService airQualityService,
-            FireDataService fireDataService) {
-        this.weatherService = weatherService;
-        this.meteoService = meteoService;
-        this.marineDataService = marineDataService;
-        this.airQualityService = airQualityService;
+    public DataFetchScheduler(FireDataService fireDataService,
+            RefreshCoordinator refreshCoordinator,
+            SchedulerLeaseService schedulerLeaseService) {
         this.fireDataService = fireDataService;
+        this.refreshCoordinator = refreshCoordinator;
+        this.schedulerLeaseService = schedulerLeaseService;
     }
 
-    @Scheduled(fixedRate = 300000) // 5 minutes
-    public void fetchWeatherData() {
-        logger.info("Scheduled weather data fetch starting");
-        weatherService.fetchAndStoreWeatherData().subscribe();
-    }
-
-    @Scheduled(fixedRate = 300000) // 5 minutes
-    public void fetchMeteoData() {
-        logger.info("Scheduled meteo data fetch starting");
-        meteoService.fetchAndStoreMeteoData().subscribe();
-    }
-
-    @Scheduled(fixedRate = 600000) // 10 minutes
-    public void fetchMarineData() {
-        logger.info("Scheduled marine data fetch starting");
-        marineDataService.fetchAndStoreMarineData().subscribe();
-    }
-
-    @Scheduled(fixedRate = 900000) // 15 minutes
-    public void fetchAirQualityData() {
-        logger.info("Scheduled air quality data fetch starting");
-        airQualityService.fetchAndStoreAirQualityData().subscribe();
-    }
-
-    @Scheduled(fixedRate = 3600000) // 1 hour
+    @Scheduled(fixedRateString = "${scheduler.fire-data-interval:3600000}")
     public void fetchFireData() {
+        if (!schedulerLeaseService.holds("fire-data")) {
+            logger.debug("Skipping scheduled fire data fetch: lease held by another node");
+            return;
+        }
         logger.info("Scheduled fire data fetch starting");
-        fireDataService.fetchAndStoreFireData().subscribe();
+        // A sync still running from the last hour (or a manual refresh) is joined, not overlapped
+        refreshCoordinator.trigger("fire-data", fireDataService::fetchAndStoreFireData);
     }
 }
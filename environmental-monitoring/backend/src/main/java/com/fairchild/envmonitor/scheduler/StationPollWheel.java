@@ -0,0 +1,283 @@
+package com.fairchild.envmonitor.scheduler;
+
+import com.fairchild.envmonitor.service.AirQualityService;
+import com.fairchild.envmonitor.service.ClusterMembershipService;
+import com.fairchild.envmonitor.service.FetchCycleSummary;
+import com.fairchild.envmonitor.service.MarineDataService;
+import com.fairchild.envmonitor.service.MeteoService;
+import com.fairchild.envmonitor.service.RegisteredStation;
+import com.fairchild.envmonitor.service.SchedulerLeaseService;
+import com.fairchild.envmonitor.service.StationRegistry;
+import com.fairchild.envmonitor.service.WeatherService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * Hashed timing wheel for the station-based sources. Each source's interval
+ * is divided into slots of {@code scheduler.wheel.tick-ms}, and every station
+ * is pinned to one slot by a hash of its source and id. On each tick only
+ * the stations in the current slot are fetched, so a source's polls are
+ * spread evenly over its interval instead of all firing at once, and a
+ * station is polled at the same offset into every revolution. Open-Meteo,
+ * which packs many locations into one request, instead gets one slot per
+ * {@code external-apis.open-meteo.batch-size} locations, each spanning
+ * several ticks, so every slot still fills a whole batch.
+ *
+ * <p>Slots are assigned against the registry's current station list and
+ * re-assigned whenever the registry reloads. Ticks that ran late are caught
+ * up (up to one revolution) rather than skipped, so no slot is missed.
+ * Counts are logged once per revolution.
+ *
+ * <p>At most {@code scheduler.wheel.max-in-flight} slot fetches, across all
+ * sources, run at once, and a station whose previous fetch has not finished
+ * is left out of its slot. A slot that finds no free permit is not claimed,
+ * so its stations stay due and are picked up on the next revolution instead
+ * of piling onto a slow upstream. With several replicas, a node
+ * only polls the stations that {@link ClusterMembershipService} assigns to
+ * it or, with partitioning disabled, the sources whose
+ * {@link SchedulerLeaseService scheduler lease} it holds.
+ *
+ * <p>When the registry adapts schedules to learned update periods, a
+ * revolution lasts at most {@code scheduler.adaptive.check-interval-ms}:
+ * every visit only asks the registry whether the station is due, and the
+ * source interval becomes the fallback for stations whose period is not
+ * yet known.
+ */
+@Component
+public class StationPollWheel {
+
+    private static final Logger logger = LoggerFactory.getLogger(StationPollWheel.class);
+
+    private final WeatherService weatherService;
+    private final MeteoService meteoService;
+    private final MarineDataService marineDataService;
+    private final AirQualityService airQualityService;
+    private final StationRegistry stationRegistry;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final ClusterMembershipService clusterMembershipService;
+
+    @Value("${scheduler.wheel.tick-ms:1000}")
+    private long tickMs;
+
+    @Value("${scheduler.weather-fetch-interval:300000}")
+    private long weatherIntervalMs;
+
+    @Value("${scheduler.meteo-fetch-interval:300000}")
+    private long meteoIntervalMs;
+
+    @Value("${scheduler.marine-fetch-interval:600000}")
+    private long marineIntervalMs;
+
+    @Value("${scheduler.air-quality-interval:900000}")
+    private long airQualityIntervalMs;
+
+    @Value("${scheduler.adaptive.check-interval-ms:60000}")
+    private long adaptiveCheckIntervalMs;
+
+    @Value("${scheduler.wheel.max-in-flight:16}")
+    private int maxInFlight;
+
+    private final List<SourceWheel> wheels = new ArrayList<>();
+    private Semaphore inFlightSlots;
+    private long nextTick;
+
+    public StationPollWheel(WeatherService weatherService,
+            MeteoService meteoService,
+            MarineDataService marineDataService,
+            AirQualityService airQualityService,
+            StationRegistry stationRegistry,
+            SchedulerLeaseService schedulerLeaseService,
+            ClusterMembershipService clusterMembershipService) {
+        this.weatherService = weatherService;
+        this.meteoService = meteoService;
+        this.marineDataService = marineDataService;
+        this.airQualityService = airQualityService;
+        this.stationRegistry = stationRegistry;
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.clusterMembershipService = clusterMembershipService;
+    }
+
+    @PostConstruct
+    public void init() {
+        inFlightSlots = new Semaphore(maxInFlight);
+        wheels.add(new SourceWheel("weather.gov", weatherIntervalMs, 0, weatherService::fetchAndStoreWeatherData));
+        // Open-Meteo takes many locations per request, so its slots are sized to hold about one batch each
+        wheels.add(new SourceWheel("open-meteo", meteoIntervalMs, meteoService.getBatchSize(),
+                meteoService::fetchAndStoreMeteoData));
+        wheels.add(new SourceWheel("marine-data", marineIntervalMs, 0, marineDataService::fetchAndStoreMarineData));
+        wheels.add(new SourceWheel("air-quality", airQualityIntervalMs, 0,
+                airQualityService::fetchAndStoreAirQualityData));
+        nextTick = System.currentTimeMillis() / tickMs;
+        for (SourceWheel wheel : wheels) {
+            logger.info("Polling {} over a revolution of {} ticks of {} ms",
+                    wheel.sourceName, wheel.tickCount, tickMs);
+        }
+    }
+
+    @Scheduled(fixedRateString = "${scheduler.wheel.tick-ms:1000}")
+    public void tick() {
+        long currentTick = System.currentTimeMillis() / tickMs;
+        for (SourceWheel wheel : wheels) {
+            // Unless stations are partitioned across replicas, only the lease holder polls a source
+            if (!clusterMembershipService.isEnabled() && !schedulerLeaseService.holds(wheel.sourceName)) {
+                continue;
+            }
+            // Never replay more than one revolution, or a station would be visited twice
+            long from = Math.max(nextTick, currentTick - wheel.tickCount + 1);
+            for (long t = from; t <= currentTick; t++) {
+                wheel.advance(t);
+            }
+        }
+        nextTick = currentTick + 1;
+    }
+
+    private final class SourceWheel {
+        final String sourceName;
+        final Duration interval;
+        final int tickCount;
+        final int stationsPerSlot;
+        final Function<List<RegisteredStation>, Mono<FetchCycleSummary>> fetch;
+        final AtomicReference<FetchCycleSummary> revolution;
+        final Set<String> inFlightStations = ConcurrentHashMap.newKeySet();
+
+        List<RegisteredStation> assignedFrom;
+        List<List<RegisteredStation>> slots;
+        int slotCount;
+
+        /**
+         * With {@code stationsPerSlot} of 0 every tick is its own slot; for
+         * sources that fetch many stations per request, the revolution is
+         * instead cut into as many slots as it takes to hold the stations
+         * {@code stationsPerSlot} at a time, each spanning several ticks.
+         */
+        SourceWheel(String sourceName, long intervalMs, int stationsPerSlot,
+                Function<List<RegisteredStation>, Mono<FetchCycleSummary>> fetch) {
+            this.sourceName = sourceName;
+            this.interval = Duration.ofMillis(intervalMs);
+            long revolutionMs = stationRegistry.isAdaptive()
+                    ? Math.min(intervalMs, adaptiveCheckIntervalMs)
+                    : intervalMs;
+            this.tickCount = (int) Math.max(1, revolutionMs / tickMs);
+            this.stationsPerSlot = stationsPerSlot;
+            this.fetch = fetch;
+            this.revolution = new AtomicReference<>(FetchCycleSummary.empty(sourceName));
+        }
+
+        void advance(long tick) {
+            int position = (int) Math.floorMod(tick, (long) tickCount);
+            assignSlots();
+            int slot = slotAt(position);
+            // A slot spanning several ticks is visited on its first one
+            if (position == 0 || slotAt(position - 1) != slot) {
+                List<RegisteredStation> candidates = idleStations(ownedStations(slots.get(slot)));
+                if (!candidates.isEmpty()) {
+                    poll(slot, candidates);
+                }
+            }
+            if (position == tickCount - 1) {
+                FetchCycleSummary completed = revolution.getAndSet(FetchCycleSummary.empty(sourceName));
+                if (completed.getTotal() > 0) {
+                    logger.info("Scheduled {} polling revolution finished: {}", sourceName, completed);
+                }
+            }
+        }
+
+        private void poll(int slot, List<RegisteredStation> candidates) {
+            if (!inFlightSlots.tryAcquire()) {
+                logger.debug("Deferring {} slot {}: {} slot fetches already in flight",
+                        sourceName, slot, maxInFlight);
+                return;
+            }
+            List<RegisteredStation> due = stationRegistry.claimDue(candidates, interval);
+            if (due.isEmpty()) {
+                inFlightSlots.release();
+                return;
+            }
+            for (RegisteredStation station : due) {
+                inFlightStations.add(station.getStationId());
+            }
+            Mono.defer(() -> fetch.apply(due))
+                    .doFinally(signal -> {
+                        for (RegisteredStation station : due) {
+                            inFlightStations.remove(station.getStationId());
+                        }
+                        inFlightSlots.release();
+                    })
+                    .subscribe(
+                            summary -> revolution.accumulateAndGet(summary, FetchCycleSummary::plus),
+                            error -> logger.error("Polling {} slot {} failed: {}",
+                                    sourceName, slot, error.getMessage()));
+        }
+
+        private List<RegisteredStation> idleStations(List<RegisteredStation> stations) {
+            if (inFlightStations.isEmpty()) {
+                return stations;
+            }
+            List<RegisteredStation> idle = new ArrayList<>(stations.size());
+            for (RegisteredStation station : stations) {
+                if (!inFlightStations.contains(station.getStationId())) {
+                    idle.add(station);
+                }
+            }
+            return idle;
+        }
+
+        private int slotAt(int position) {
+            return (int) ((long) position * slotCount / tickCount);
+        }
+
+        private void assignSlots() {
+            // The registry hands out the same list instance until it reloads
+            List<RegisteredStation> stations = stationRegistry.getStations(sourceName);
+            if (stations != assignedFrom) {
+                slotCount = stationsPerSlot > 0
+                        ? Math.max(1, Math.min(tickCount, (stations.size() + stationsPerSlot - 1) / stationsPerSlot))
+                        : tickCount;
+                List<List<RegisteredStation>> assigned = new ArrayList<>(slotCount);
+                for (int i = 0; i < slotCount; i++) {
+                    assigned.add(new ArrayList<>());
+                }
+                for (RegisteredStation station : stations) {
+                    assigned.get(slotOf(station)).add(station);
+                }
+                slots = assigned;
+                assignedFrom = stations;
+            }
+        }
+
+        private List<RegisteredStation> ownedStations(List<RegisteredStation> stations) {
+            if (!clusterMembershipService.isEnabled()) {
+                return stations;
+            }
+            List<RegisteredStation> owned = new ArrayList<>(stations.size());
+            for (RegisteredStation station : stations) {
+                if (clusterMembershipService.owns(station)) {
+                    owned.add(station);
+                }
+            }
+            return owned;
+        }
+
+        private int slotOf(RegisteredStation station) {
+            CRC32 crc = new CRC32();
+            crc.update((sourceName + '|' + station.getStationId()).getBytes(StandardCharsets.UTF_8));
+            return (int) (crc.getValue() % slotCount);
+        }
+    }
+}
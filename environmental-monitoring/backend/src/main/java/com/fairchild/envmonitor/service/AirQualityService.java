@@ -11,11 +11,16 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class AirQualityService {
@@ -25,57 +30,56 @@ public class AirQualityService {
     private final AirQualityDataRepository airQualityDataRepository;
     private final DataSourceStatusService dataSourceStatusService;
     private final ObjectMapper objectMapper;
+    private final FetchCycleExecutor fetchCycleExecutor;
+    private final IngestionWriter ingestionWriter;
+    private final StationRegistry stationRegistry;
+    private final LatestObservationStore latestObservationStore;
+    private final Scheduler persistenceScheduler;
 
     @Value("${external-apis.air-quality.api-key}")
     private String apiKey;
 
-    // Default locations for air quality monitoring
-    private static final AQLocation[] DEFAULT_AQ_LOCATIONS = {
-            new AQLocation("Chicago", new BigDecimal("41.8781"), new BigDecimal("-87.6298")),
-            new AQLocation("Los Angeles", new BigDecimal("34.0522"), new BigDecimal("-118.2437")),
-            new AQLocation("New York", new BigDecimal("40.7128"), new BigDecimal("-74.0060")),
-            new AQLocation("Denver", new BigDecimal("39.7392"), new BigDecimal("-104.9903")),
-            new AQLocation("Houston", new BigDecimal("29.7604"), new BigDecimal("-95.3698")),
-            new AQLocation("Seattle", new BigDecimal("47.6062"), new BigDecimal("-122.3321")),
-            new AQLocation("Miami", new BigDecimal("25.7617"), new BigDecimal("-80.1918")),
-            new AQLocation("Atlanta", new BigDecimal("33.7490"), new BigDecimal("-84.3880"))
-    };
-
-    private static class AQLocation {
-        final String name;
-        final BigDecimal latitude;
-        final BigDecimal longitude;
-
-        AQLocation(String name, BigDecimal latitude, BigDecimal longitude) {
-            this.name = name;
-            this.latitude = latitude;
-            this.longitude = longitude;
-        }
-    }
+    private static final Map<String, ZoneOffset> AIRNOW_ZONE_OFFSETS = Map.ofEntries(
+            Map.entry("EST", ZoneOffset.ofHours(-5)), Map.entry("EDT", ZoneOffset.ofHours(-4)),
+            Map.entry("CST", ZoneOffset.ofHours(-6)), Map.entry("CDT", ZoneOffset.ofHours(-5)),
+            Map.entry("MST", ZoneOffset.ofHours(-7)), Map.entry("MDT", ZoneOffset.ofHours(-6)),
+            Map.entry("PST", ZoneOffset.ofHours(-8)), Map.entry("PDT", ZoneOffset.ofHours(-7)),
+            Map.entry("AKST", ZoneOffset.ofHours(-9)), Map.entry("AKDT", ZoneOffset.ofHours(-8)),
+            Map.entry("HST", ZoneOffset.ofHours(-10)));
 
     public AirQualityService(@Qualifier("airQualityWebClient") WebClient airQualityWebClient,
             AirQualityDataRepository airQualityDataRepository,
             DataSourceStatusService dataSourceStatusService,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            FetchCycleExecutor fetchCycleExecutor,
+            IngestionWriter ingestionWriter,
+            StationRegistry stationRegistry,
+            LatestObservationStore latestObservationStore,
+            @Qualifier("persistenceScheduler") Scheduler persistenceScheduler) {
         this.airQualityWebClient = airQualityWebClient;
         this.airQualityDataRepository = airQualityDataRepository;
         this.dataSourceStatusService = dataSourceStatusService;
         this.objectMapper = objectMapper;
+        this.fetchCycleExecutor = fetchCycleExecutor;
+        this.ingestionWriter = ingestionWriter;
+        this.stationRegistry = stationRegistry;
+        this.latestObservationStore = latestObservationStore;
+        this.persistenceScheduler = persistenceScheduler;
     }
 
-    public Mono<Void> fetchAndStoreAirQualityData() {
-        logger.info("Starting air quality data fetch for all default locations");
-
-        return Mono.fromRunnable(() -> {
-            for (AQLocation location : DEFAULT_AQ_LOCATIONS) {
-                fetchLocationData(location.name, location.latitude, location.longitude)
-                        .doOnSuccess(data -> logger.info("Successfully fetched air quality data for location: {}",
-                                location.name))
-                        .doOnError(error -> logger.error("Failed to fetch air quality data for location: {}",
-                                location.name, error))
-                        .subscribe();
-            }
-        });
+    public Mono<FetchCycleSummary> fetchAndStoreAirQualityData() {
+        logger.info("Starting air quality data fetch for all registered locations");
+        return fetchAndStoreAirQualityData(stationRegistry.getDueStations("air-quality"));
+    }
+
+    /** Fetches the given, already claimed, locations. */
+    public Mono<FetchCycleSummary> fetchAndStoreAirQualityData(List<RegisteredStation> stations) {
+        return fetchCycleExecutor.execute("air-quality", StationRegistry.withCoordinates("air-quality", stations),
+                location -> fetchLocationData(location.getStationId(), location.getLatitude(), location.getLongitude())
+                        .doOnNext(data -> {
+                            stationRegistry.recordObservation(location, data.getTimestamp());
+                            logger.info("Successfully fetched air quality data for location: {}", location);
+                        }));
     }
 
     public Mono<AirQualityData> fetchLocationData(String stationId, BigDecimal latitude, BigDecimal longitude) {
@@ -91,13 +95,13 @@ public class AirQualityService {
                         .build())
                 .retrieve()
                 .bodyToMono(JsonNode.class)
-                .map(response -> parseAirQualityResponse(response, stationId, latitude, longitude))
-                .doOnSuccess(airQualityData -> {
-                    if (airQualityData != null) {
-                        airQualityDataRepository.save(airQualityData);
-                        dataSourceStatusService.recordSuccessfulFetch("air-quality");
-                    }
-                })
+                .publishOn(persistenceScheduler)
+                .mapNotNull(response -> parseAirQualityResponse(response, stationId, latitude, longitude))
+                .flatMap(airQualityData -> ingestionWriter.submit(airQualityData)
+                        .doOnNext(inserted -> dataSourceStatusService.recordSuccessfulFetch("air-quality"))
+                        // An observation already stored under the same natural key completes empty (skipped)
+                        .filter(inserted -> inserted)
+                        .map(inserted -> airQualityData))
                 .doOnError(error -> {
                     logger.error("Error fetching air quality data for location {}: {}", stationId, error.getMessage());
                     dataSourceStatusService.recordError("air-quality", error.getMessage());
@@ -119,37 +123,45 @@ public class AirQualityService {
             airQualityData.setStationId(stationId);
             airQualityData.setLatitude(latitude);
             airQualityData.setLongitude(longitude);
-            airQualityData.setTimestamp(OffsetDateTime.now());
-
-            // Parse AQI
-            JsonNode aqiNode = stationData.get("AQI");
-            if (aqiNode != null && !aqiNode.isNull()) {
-                airQualityData.setAqi(aqiNode.asInt());
-            }
-
-            // Parse parameter-specific data
-            String parameterName = stationData.get("ParameterName").asText();
-            BigDecimal value = new BigDecimal(stationData.get("Value").asDouble());
-
-            switch (parameterName.toUpperCase()) {
-                case "PM2.5":
-                    airQualityData.setPm25(value);
-                    break;
-                case "PM10":
-                    airQualityData.setPm10(value);
-                    break;
-                case "NO2":
-                    airQualityData.setNo2(value);
-                    break;
-                case "O3":
-                    airQualityData.setO3(value);
-                    break;
-                case "SO2":
-                    airQualityData.setSo2(value);
-                    break;
-                case "CO":
-                    airQualityData.setCo(value);
-                    break;
+            airQualityData.setTimestamp(parseObservationTime(stationData));
+
+            // One entry per pollutant for the same reporting area and hour
+            for (JsonNode parameterData : response) {
+                // Overall AQI is the worst of the per-pollutant values
+                JsonNode aqiNode = parameterData.get("AQI");
+                if (aqiNode != null && !aqiNode.isNull()
+                        && (airQualityData.getAqi() == null || aqiNode.asInt() > airQualityData.getAqi())) {
+                    airQualityData.setAqi(aqiNode.asInt());
+                }
+
+                // Parse parameter-specific data
+                JsonNode parameterNode = parameterData.get("ParameterName");
+                JsonNode valueNode = parameterData.get("Value");
+                if (parameterNode == null || valueNode == null || valueNode.isNull()) {
+                    continue;
+                }
+                BigDecimal value = new BigDecimal(valueNode.asDouble());
+
+                switch (parameterNode.asText().toUpperCase()) {
+                    case "PM2.5":
+                        airQualityData.setPm25(value);
+                        break;
+                    case "PM10":
+                        airQualityData.setPm10(value);
+                        break;
+                    case "NO2":
+                        airQualityData.setNo2(value);
+                        break;
+                    case "O3":
+                        airQualityData.setO3(value);
+                        break;
+                    case "SO2":
+                        airQualityData.setSo2(value);
+                        break;
+                    case "CO":
+                        airQualityData.setCo(value);
+                        break;
+                }
             }
 
             // Store raw data
@@ -163,6 +175,26 @@ public class AirQualityService {
         }
     }
 
+    /**
+     * AirNow reports the observation hour as DateObserved + HourObserved in the
+     * reporting area's local time zone. Using it instead of the fetch time
+     * gives repeated polls within the hour the same (station, timestamp) key.
+     * Unknown zones fall back to the current hour, which AirNow also updates on.
+     */
+    private OffsetDateTime parseObservationTime(JsonNode stationData) {
+        try {
+            LocalDate date = LocalDate.parse(stationData.get("DateObserved").asText().trim());
+            int hour = stationData.get("HourObserved").asInt();
+            ZoneOffset offset = AIRNOW_ZONE_OFFSETS.get(stationData.get("LocalTimeZone").asText().trim());
+            if (offset != null) {
+                return date.atTime(hour, 0).atOffset(offset);
+            }
+        } catch (Exception e) {
+            logger.debug("Could not parse AirNow observation time: {}", e.getMessage());
+        }
+        return OffsetDateTime.now().truncatedTo(ChronoUnit.HOURS);
+    }
+
     public List<AirQualityData> getRecentAirQualityData(int hours) {
         OffsetDateTime since = OffsetDateTime.now().minusHours(hours);
         return airQualityDataRepository.findRecentAirQualityData(since);
@@ -177,7 +209,7 @@ public class AirQualityService {
     }
 
     public AirQualityData getLatestStationData(String stationId) {
-        return airQualityDataRepository.findLatestByStationId(stationId);
+        return latestObservationStore.getLatestAirQuality(stationId);
     }
 
     public List<AirQualityData> getHighAqiReadings(Integer threshold, int hours) {
@@ -0,0 +1,164 @@
+package com.fairchild.envmonitor.service;
+
+import com.fairchild.envmonitor.config.RateLimitedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed / open / half-open breaker for one upstream source.
+ *
+ * <p>After {@code failureThreshold} consecutive failures the breaker opens
+ * and calls are rejected without touching the network. Once the open period
+ * has passed a single probe call is let through (half-open): success closes
+ * the breaker, failure re-opens it for twice as long as before, up to
+ * {@code maxOpenDuration}, with random jitter so that sources sharing an
+ * outage do not all probe at the same moment.
+ */
+public class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String sourceName;
+    private final int failureThreshold;
+    private final Duration baseOpenDuration;
+    private final Duration maxOpenDuration;
+    private final double jitter;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int consecutiveOpenings;
+    private Instant openUntil;
+    private boolean probeInFlight;
+
+    CircuitBreaker(String sourceName, int failureThreshold, Duration baseOpenDuration, Duration maxOpenDuration,
+            double jitter) {
+        this.sourceName = sourceName;
+        this.failureThreshold = failureThreshold;
+        this.baseOpenDuration = baseOpenDuration;
+        this.maxOpenDuration = maxOpenDuration;
+        this.jitter = jitter;
+    }
+
+    /**
+     * Subscribes to {@code call} only if the breaker permits it, and feeds
+     * the call's outcome back into the breaker. While open, the returned Mono
+     * fails with {@link CircuitOpenException} instead.
+     */
+    public <T> Mono<T> protect(Mono<T> call) {
+        return Mono.defer(() -> {
+            if (!tryAcquire()) {
+                return Mono.error(new CircuitOpenException(sourceName, getOpenUntil()));
+            }
+            return call
+                    .doOnSuccess(result -> onSuccess())
+                    .doOnError(error -> {
+                        if (error instanceof RateLimitedException) {
+                            // Never reached the source, so it says nothing about its health
+                            releaseProbe();
+                        } else if (countsAsFailure(error)) {
+                            onFailure(error);
+                        } else {
+                            onSuccess();
+                        }
+                    })
+                    .doOnCancel(this::releaseProbe);
+        });
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Instant getOpenUntil() {
+        return state == State.CLOSED ? null : openUntil;
+    }
+
+    public synchronized int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (Instant.now().isBefore(openUntil)) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeInFlight = true;
+                logger.info("Circuit for {} half-open, sending probe", sourceName);
+                return true;
+            default:
+                // Only one probe at a time while half-open
+                if (probeInFlight) {
+                    return false;
+                }
+                probeInFlight = true;
+                return true;
+        }
+    }
+
+    synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            logger.info("Circuit for {} closed after successful probe", sourceName);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        consecutiveOpenings = 0;
+        probeInFlight = false;
+    }
+
+    synchronized void onFailure(Throwable error) {
+        consecutiveFailures++;
+        probeInFlight = false;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            open(error);
+        }
+    }
+
+    private synchronized void releaseProbe() {
+        probeInFlight = false;
+    }
+
+    private void open(Throwable error) {
+        Duration openFor = nextOpenDuration();
+        consecutiveOpenings++;
+        state = State.OPEN;
+        openUntil = Instant.now().plus(openFor);
+        logger.warn("Circuit for {} opened for {} s after {} consecutive failures (last: {})",
+                sourceName, openFor.toSeconds(), consecutiveFailures, error.getMessage());
+    }
+
+    private Duration nextOpenDuration() {
+        long baseMs = baseOpenDuration.toMillis();
+        long maxMs = maxOpenDuration.toMillis();
+        // Cap the shift so the multiplication cannot overflow
+        long backoffMs = Math.min(maxMs, baseMs << Math.min(consecutiveOpenings, 20));
+        double factor = 1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        return Duration.ofMillis(Math.max(0, Math.round(backoffMs * factor)));
+    }
+
+    /**
+     * Client errors other than 429 mean the provider answered and the request
+     * itself was bad (an unknown station, say), so they do not count against
+     * the source.
+     */
+    private static boolean countsAsFailure(Throwable error) {
+        if (error instanceof WebClientResponseException) {
+            WebClientResponseException response = (WebClientResponseException) error;
+            return !response.getStatusCode().is4xxClientError() || response.getStatusCode().value() == 429;
+        }
+        return true;
+    }
+}
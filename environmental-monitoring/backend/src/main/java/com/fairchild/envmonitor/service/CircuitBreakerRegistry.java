@@ -0,0 +1,51 @@
+package com.fairchild.envmonitor.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link CircuitBreaker} per upstream source name, created on first use
+ * with the {@code ingest.circuit-breaker.*} settings.
+ */
+@Component
+public class CircuitBreakerRegistry {
+
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    @Value("${ingest.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${ingest.circuit-breaker.open-ms:30000}")
+    private long openMs;
+
+    @Value("${ingest.circuit-breaker.max-open-ms:900000}")
+    private long maxOpenMs;
+
+    @Value("${ingest.circuit-breaker.jitter:0.2}")
+    private double jitter;
+
+    public CircuitBreakerRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public CircuitBreaker get(String sourceName) {
+        return breakers.computeIfAbsent(sourceName, this::create);
+    }
+
+    private CircuitBreaker create(String sourceName) {
+        CircuitBreaker breaker = new CircuitBreaker(sourceName, failureThreshold, Duration.ofMillis(openMs),
+                Duration.ofMillis(maxOpenMs), jitter);
+        Gauge.builder("ingest.circuit.state", breaker, b -> b.getState().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .tag("source", sourceName)
+                .register(meterRegistry);
+        return breaker;
+    }
+}
@@ -0,0 +1,27 @@
+package com.fairchild.envmonitor.service;
+
+import java.time.Instant;
+
+/**
+ * Signals that an upstream call was not attempted because the source's
+ * circuit breaker is open. Callers count it as skipped, not failed.
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    private final String sourceName;
+    private final Instant openUntil;
+
+    public CircuitOpenException(String sourceName, Instant openUntil) {
+        super("Circuit for " + sourceName + " is open until " + openUntil);
+        this.sourceName = sourceName;
+        this.openUntil = openUntil;
+    }
+
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    public Instant getOpenUntil() {
+        return openUntil;
+    }
+}
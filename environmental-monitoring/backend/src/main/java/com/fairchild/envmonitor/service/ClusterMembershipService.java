@@ -0,0 +1,107 @@
+package com.fairchild.envmonitor.service;
+
+import com.fairchild.envmonitor.repository.SchedulerNodeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Splits per-station polling across every live backend replica. Each node
+ * records a heartbeat in {@code scheduler_node} every
+ * {@code scheduler.partitioning.heartbeat-interval-ms}; nodes heard from
+ * within {@code node-ttl-ms} form a {@link ConsistentHashRing}, and a node
+ * polls only the stations the ring assigns to it. A node joining or leaving
+ * moves only its share of the stations.
+ *
+ * <p>Nodes learn of membership changes at their own next heartbeat, so for
+ * up to one interval a station can be polled by two nodes (harmless, as
+ * observations are stored idempotently) or by none. Until the first
+ * heartbeat succeeds, or with partitioning disabled, a node owns every
+ * station.
+ */
+@Service
+public class ClusterMembershipService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ClusterMembershipService.class);
+
+    private final SchedulerNodeRepository schedulerNodeRepository;
+    private final String nodeId;
+
+    @Value("${scheduler.partitioning.enabled:true}")
+    private boolean enabled;
+
+    @Value("${scheduler.partitioning.node-ttl-ms:30000}")
+    private long nodeTtlMs;
+
+    @Value("${scheduler.partitioning.virtual-nodes:128}")
+    private int virtualNodes;
+
+    private volatile ConsistentHashRing ring;
+
+    public ClusterMembershipService(SchedulerNodeRepository schedulerNodeRepository,
+            SchedulerLeaseService schedulerLeaseService) {
+        this.schedulerNodeRepository = schedulerNodeRepository;
+        // One identity per node for leases and partitioning alike
+        this.nodeId = schedulerLeaseService.getNodeId();
+    }
+
+    @PostConstruct
+    public void join() {
+        heartbeat();
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.partitioning.heartbeat-interval-ms:5000}")
+    public void heartbeat() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            schedulerNodeRepository.heartbeat(nodeId);
+            List<String> live = schedulerNodeRepository.findLiveNodeIds(nodeTtlMs);
+            ConsistentHashRing current = ring;
+            if (current == null || !current.getNodes().equals(live)) {
+                ring = new ConsistentHashRing(live, virtualNodes);
+                logger.info("Station polling partitioned across {} nodes: {}", live.size(), live);
+                // Rows of long-dead nodes are only kept around for diagnosis
+                schedulerNodeRepository.deleteExpired(nodeTtlMs * 100);
+            }
+        } catch (Exception e) {
+            // Keep the last known ring; stale membership is better than every node polling everything
+            logger.warn("Scheduler heartbeat for {} failed: {}", nodeId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            schedulerNodeRepository.deleteByNodeId(nodeId);
+            logger.info("Node {} left the station polling ring", nodeId);
+        } catch (Exception e) {
+            logger.warn("Failed to remove {} from the station polling ring: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /** Whether station polling is split across nodes; if not, callers fall back to scheduler leases. */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Whether this node should poll {@code station}. */
+    public boolean owns(RegisteredStation station) {
+        ConsistentHashRing current = ring;
+        if (!enabled || current == null) {
+            return true;
+        }
+        String owner = current.ownerOf(station.getSourceName() + '|' + station.getStationId());
+        return owner == null || owner.equals(nodeId);
+    }
+}
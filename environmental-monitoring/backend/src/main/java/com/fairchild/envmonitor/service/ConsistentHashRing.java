@@ -0,0 +1,53 @@
+package com.fairchild.envmonitor.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable consistent-hash ring over a set of node ids. Each node is
+ * placed at {@code virtualNodes} points so that keys spread evenly, and a
+ * key belongs to the first node point at or after its own hash. When a node
+ * joins or leaves, only the keys in the arcs it gains or gives up change
+ * owner, about 1/n of them.
+ */
+final class ConsistentHashRing {
+
+    private final List<String> nodes;
+    private final TreeMap<Long, String> points = new TreeMap<>();
+
+    ConsistentHashRing(List<String> nodes, int virtualNodes) {
+        this.nodes = List.copyOf(nodes);
+        for (String node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                points.put(hash(node + '#' + i), node);
+            }
+        }
+    }
+
+    /** The node owning {@code key}, or null if the ring has no nodes. */
+    String ownerOf(String key) {
+        if (points.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, String> point = points.ceilingEntry(hash(key));
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    List<String> getNodes() {
+        return nodes;
+    }
+
+    private static long hash(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(value.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+}
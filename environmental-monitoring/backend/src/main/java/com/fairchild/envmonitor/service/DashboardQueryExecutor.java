@@ -0,0 +1,63 @@
+package com.fairchild.envmonitor.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs one dashboard section query on the dashboard bulkhead under a
+ * deadline. The query gets its own read-only transaction whose Postgres
+ * {@code statement_timeout} is the time left until the deadline, so a
+ * query still running when the caller gives up on it is cancelled by the
+ * server instead of holding a pooled connection.
+ */
+@Component
+public class DashboardQueryExecutor {
+
+    private final ExecutorService dashboardExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JdbcTemplate jdbcTemplate;
+
+    public DashboardQueryExecutor(@Qualifier("dashboardExecutor") ExecutorService dashboardExecutor,
+            PlatformTransactionManager transactionManager,
+            JdbcTemplate jdbcTemplate) {
+        this.dashboardExecutor = dashboardExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Starts {@code query}, to finish by {@code deadlineNanos} (a
+     * {@link System#nanoTime()} value). The future fails with a
+     * {@link TimeoutException} if the deadline passed while the section was
+     * queued, and with a {@link RejectedExecutionException}
+     * if the bulkhead is full.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> query, long deadlineNanos) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long remainingMs = (deadlineNanos - System.nanoTime()) / 1_000_000;
+                if (remainingMs <= 0) {
+                    throw new CompletionException(new TimeoutException("Deadline passed before the query started"));
+                }
+                return readOnlyTransaction.execute(status -> {
+                    // SET LOCAL lasts until the end of this transaction only
+                    jdbcTemplate.execute("SET LOCAL statement_timeout = " + remainingMs);
+                    return query.get();
+                });
+            }, dashboardExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -2,78 +2,181 @@ package com.fairchild.envmonitor.service;
 
 import com.fairchild.envmonitor.entity.DataSourceStatus;
 import com.fairchild.envmonitor.repository.DataSourceStatusRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Status of each data source. Fetch outcomes are counted in memory
+ * ({@link SourceStatusCounters}) and added to {@code data_source_status}
+ * every {@code ingest.status.flush-interval-ms} with one atomic upsert per
+ * source, so recording a fetch costs no database round-trip and concurrent
+ * fetches no longer race on the row.
+ *
+ * <p>{@link #getAllDataSourceStatuses} is served from memory: the rows as
+ * last read, which happens on every flush tick, plus whatever has been
+ * recorded since. Sync checkpoints and the active flag are written with
+ * targeted updates that leave the counter columns alone.
+ */
 @Service
-@Transactional
 public class DataSourceStatusService {
 
     private static final Logger logger = LoggerFactory.getLogger(DataSourceStatusService.class);
     private final DataSourceStatusRepository dataSourceStatusRepository;
 
+    private final Map<String, SourceStatusCounters> counters = new ConcurrentHashMap<>();
+    private volatile Map<String, DataSourceStatus> persisted = new ConcurrentHashMap<>();
+
     public DataSourceStatusService(DataSourceStatusRepository dataSourceStatusRepository) {
         this.dataSourceStatusRepository = dataSourceStatusRepository;
     }
 
-    public void recordSuccessfulFetch(String sourceName) {
-        Optional<DataSourceStatus> statusOpt = dataSourceStatusRepository.findBySourceName(sourceName);
-        DataSourceStatus status = statusOpt.orElse(new DataSourceStatus());
-
-        if (statusOpt.isEmpty()) {
-            status.setSourceName(sourceName);
-            status.setFetchCount(0);
-            status.setErrorCount(0);
-            status.setIsActive(true);
-        }
-
-        status.setLastSuccessfulFetch(OffsetDateTime.now());
-        status.setFetchCount(status.getFetchCount() + 1);
+    @PostConstruct
+    public void load() {
+        reloadPersisted();
+    }
 
-        dataSourceStatusRepository.save(status);
+    public void recordSuccessfulFetch(String sourceName) {
+        counters(sourceName).recordSuccess(OffsetDateTime.now());
         logger.debug("Recorded successful fetch for source: {}", sourceName);
     }
 
     public void recordError(String sourceName, String errorMessage) {
-        Optional<DataSourceStatus> statusOpt = dataSourceStatusRepository.findBySourceName(sourceName);
-        DataSourceStatus status = statusOpt.orElse(new DataSourceStatus());
-
-        if (statusOpt.isEmpty()) {
-            status.setSourceName(sourceName);
-            status.setFetchCount(0);
-            status.setErrorCount(0);
-            status.setIsActive(true);
+        counters(sourceName).recordError(OffsetDateTime.now(), errorMessage);
+        logger.warn("Recorded error for source {}: {}", sourceName, errorMessage);
+    }
+
+    @Scheduled(fixedDelayString = "${ingest.status.flush-interval-ms:5000}")
+    public void flush() {
+        for (Map.Entry<String, SourceStatusCounters> entry : counters.entrySet()) {
+            SourceStatusCounters.Delta delta = entry.getValue().drain();
+            if (delta.isEmpty()) {
+                continue;
+            }
+            try {
+                dataSourceStatusRepository.applyDeltas(entry.getKey(),
+                        (int) delta.fetches, (int) delta.errors, delta.lastSuccess,
+                        delta.lastError != null ? delta.lastError.at : null,
+                        delta.lastError != null ? delta.lastError.message : null);
+            } catch (Exception e) {
+                // Keep the counts for the next flush rather than losing them
+                entry.getValue().restore(delta);
+                logger.warn("Failed to flush status counters for {}: {}", entry.getKey(), e.getMessage());
+            }
         }
+        // Reloaded even when nothing was flushed, to pick up changes made by other nodes
+        try {
+            reloadPersisted();
+        } catch (Exception e) {
+            logger.warn("Failed to reload data source statuses: {}", e.getMessage());
+        }
+    }
 
-        status.setLastError(OffsetDateTime.now());
-        status.setErrorMessage(errorMessage);
-        status.setErrorCount(status.getErrorCount() + 1);
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
 
-        dataSourceStatusRepository.save(status);
-        logger.warn("Recorded error for source {}: {}", sourceName, errorMessage);
+    /**
+     * Stores the incremental sync position of a source: the newest upstream
+     * edit time seen so far and, after a full pass, when that pass finished.
+     * A null argument leaves the stored value unchanged.
+     */
+    public void recordSyncCheckpoint(String sourceName, OffsetDateTime highWaterMark, OffsetDateTime fullSyncAt) {
+        // A targeted update, so counters flushed meanwhile by any node are not overwritten
+        if (dataSourceStatusRepository.updateSyncCheckpoint(sourceName, highWaterMark, fullSyncAt) > 0) {
+            refreshPersisted(sourceName);
+            logger.debug("Recorded sync checkpoint for source {}: high-water mark {}", sourceName, highWaterMark);
+        }
     }
 
+    /** Persisted statuses with the not yet flushed counts applied; each call returns fresh copies. */
     public List<DataSourceStatus> getAllDataSourceStatuses() {
-        return dataSourceStatusRepository.findAll();
+        Map<String, DataSourceStatus> rows = persisted;
+        List<DataSourceStatus> statuses = new ArrayList<>(rows.size());
+        for (DataSourceStatus row : rows.values()) {
+            statuses.add(withPending(row));
+        }
+        for (String sourceName : counters.keySet()) {
+            if (!rows.containsKey(sourceName)) {
+                DataSourceStatus row = new DataSourceStatus();
+                row.setSourceName(sourceName);
+                statuses.add(withPending(row));
+            }
+        }
+        return statuses;
     }
 
+    /** Read from the database, for callers that need the sync checkpoint as stored. */
+    @Transactional(readOnly = true)
     public Optional<DataSourceStatus> getDataSourceStatus(String sourceName) {
         return dataSourceStatusRepository.findBySourceName(sourceName);
     }
 
     public void toggleDataSourceActive(String sourceName, boolean isActive) {
-        Optional<DataSourceStatus> statusOpt = dataSourceStatusRepository.findBySourceName(sourceName);
-        if (statusOpt.isPresent()) {
-            DataSourceStatus status = statusOpt.get();
-            status.setIsActive(isActive);
-            dataSourceStatusRepository.save(status);
+        if (dataSourceStatusRepository.updateActive(sourceName, isActive) > 0) {
+            refreshPersisted(sourceName);
             logger.info("Set data source {} active status to: {}", sourceName, isActive);
         }
     }
+
+    private SourceStatusCounters counters(String sourceName) {
+        return counters.computeIfAbsent(sourceName, name -> new SourceStatusCounters());
+    }
+
+    private void refreshPersisted(String sourceName) {
+        dataSourceStatusRepository.findBySourceName(sourceName)
+                .ifPresent(row -> persisted.put(sourceName, row));
+    }
+
+    private void reloadPersisted() {
+        Map<String, DataSourceStatus> rows = new ConcurrentHashMap<>();
+        for (DataSourceStatus row : dataSourceStatusRepository.findAll()) {
+            rows.put(row.getSourceName(), row);
+        }
+        persisted = rows;
+    }
+
+    private DataSourceStatus withPending(DataSourceStatus row) {
+        DataSourceStatus status = new DataSourceStatus();
+        status.setId(row.getId());
+        status.setSourceName(row.getSourceName());
+        status.setIsActive(row.getIsActive());
+        status.setFetchCount(row.getFetchCount() != null ? row.getFetchCount() : 0);
+        status.setErrorCount(row.getErrorCount() != null ? row.getErrorCount() : 0);
+        status.setLastSuccessfulFetch(row.getLastSuccessfulFetch());
+        status.setLastError(row.getLastError());
+        status.setErrorMessage(row.getErrorMessage());
+        status.setSyncHighWaterMark(row.getSyncHighWaterMark());
+        status.setLastFullSync(row.getLastFullSync());
+
+        SourceStatusCounters pending = counters.get(row.getSourceName());
+        if (pending == null) {
+            return status;
+        }
+        SourceStatusCounters.Delta delta = pending.peek();
+        status.setFetchCount(status.getFetchCount() + (int) delta.fetches);
+        status.setErrorCount(status.getErrorCount() + (int) delta.errors);
+        if (delta.lastSuccess != null && (status.getLastSuccessfulFetch() == null
+                || delta.lastSuccess.isAfter(status.getLastSuccessfulFetch()))) {
+            status.setLastSuccessfulFetch(delta.lastSuccess);
+        }
+        if (delta.lastError != null && (status.getLastError() == null
+                || delta.lastError.at.isAfter(status.getLastError()))) {
+            status.setLastError(delta.lastError.at);
+            status.setErrorMessage(delta.lastError.message);
+        }
+        return status;
+    }
 }
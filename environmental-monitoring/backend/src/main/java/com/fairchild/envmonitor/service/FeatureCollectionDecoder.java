@@ -0,0 +1,153 @@
+package com.fairchild.envmonitor.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental decoder for ArcGIS/GeoJSON feature collections. The response
+ * body is fed chunk by chunk into Jackson's non-blocking parser and each
+ * element of the top-level {@code features} array is emitted as soon as its
+ * closing brace arrives, so memory is bounded by the largest single feature
+ * rather than by the whole payload. Other top-level fields (for example
+ * {@code exceededTransferLimit} or an {@code error} object) are collected
+ * into {@link #getRootFields()}, which is complete once the Flux completes.
+ *
+ * <p>One instance decodes one response body and is not thread-safe.
+ */
+class FeatureCollectionDecoder {
+
+    private static final String FEATURES_FIELD = "features";
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final ObjectNode rootFields;
+
+    private int depth;
+    private String rootFieldName;
+    private boolean inFeatures;
+    private boolean sawFeatures;
+    private TokenBuffer current;
+    private int currentStartDepth;
+
+    FeatureCollectionDecoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.rootFields = objectMapper.createObjectNode();
+        try {
+            this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    Flux<JsonNode> decode(Flux<DataBuffer> body) {
+        return body.concatMapIterable(this::feed)
+                .concatWith(Flux.defer(() -> Flux.fromIterable(finish())));
+    }
+
+    ObjectNode getRootFields() {
+        return rootFields;
+    }
+
+    boolean hasFeatures() {
+        return sawFeatures;
+    }
+
+    private List<JsonNode> feed(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            feeder.feedInput(bytes, 0, bytes.length);
+            return drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private List<JsonNode> finish() {
+        try {
+            feeder.endOfInput();
+            List<JsonNode> remaining = drain();
+            if (depth != 0) {
+                throw new IOException("Feature collection ended before the JSON document was complete");
+            }
+            return remaining;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<JsonNode> drain() throws IOException {
+        List<JsonNode> completed = new ArrayList<>();
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (current != null) {
+                // Copying a feature (or a structured root field) token by token
+                current.copyCurrentEvent(parser);
+                trackDepth(token);
+                if (depth == currentStartDepth) {
+                    JsonNode node = objectMapper.readTree(current.asParser(objectMapper));
+                    current = null;
+                    if (inFeatures) {
+                        completed.add(node);
+                    } else {
+                        rootFields.set(rootFieldName, node);
+                    }
+                }
+                continue;
+            }
+
+            if (depth == 1 && token == JsonToken.FIELD_NAME) {
+                rootFieldName = parser.getCurrentName();
+            } else if (depth == 1 && token == JsonToken.START_ARRAY && FEATURES_FIELD.equals(rootFieldName)) {
+                inFeatures = true;
+                sawFeatures = true;
+                depth++;
+            } else if (depth == 2 && inFeatures && token == JsonToken.END_ARRAY) {
+                inFeatures = false;
+                depth--;
+            } else if ((depth == 2 && inFeatures && token == JsonToken.START_OBJECT)
+                    || (depth == 1 && token.isStructStart())) {
+                currentStartDepth = depth;
+                current = new TokenBuffer(objectMapper, false);
+                current.copyCurrentEvent(parser);
+                depth++;
+            } else if (depth == 1 && token.isScalarValue()) {
+                rootFields.set(rootFieldName, objectMapper.readTree(tokenOf(parser)));
+            } else {
+                trackDepth(token);
+            }
+        }
+        return completed;
+    }
+
+    private JsonParser tokenOf(JsonParser source) throws IOException {
+        TokenBuffer scalar = new TokenBuffer(objectMapper, false);
+        scalar.copyCurrentEvent(source);
+        return scalar.asParser(objectMapper);
+    }
+
+    private void trackDepth(JsonToken token) {
+        if (token.isStructStart()) {
+            depth++;
+        } else if (token.isStructEnd()) {
+            depth--;
+        }
+    }
+}
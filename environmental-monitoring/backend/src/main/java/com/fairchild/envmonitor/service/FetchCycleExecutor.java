@@ -0,0 +1,157 @@
+package com.fairchild.envmonitor.service;
+
+import com.fairchild.envmonitor.config.ConditionalGetFilter;
+import com.fairchild.envmonitor.config.RateLimitedException;
+import com.fairchild.envmonitor.config.RateLimitingFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Runs one polling cycle for a data source as a bounded reactive fan-out.
+ * At most {@code ingest.fetch.concurrency} targets are in flight at once,
+ * each fetch is cut off after {@code ingest.fetch.station-timeout-ms} (not
+ * counting time spent waiting for a rate-limit slot), and the returned Mono
+ * completes only once every target has finished.
+ */
+@Component
+public class FetchCycleExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(FetchCycleExecutor.class);
+
+    private enum Outcome {
+        OK, FAILED, SKIPPED
+    }
+
+    private final DataSourceStatusService dataSourceStatusService;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final Scheduler persistenceScheduler;
+
+    @Value("${ingest.fetch.concurrency:32}")
+    private int concurrency;
+
+    @Value("${ingest.fetch.station-timeout-ms:30000}")
+    private long stationTimeoutMs;
+
+    @Value("${ingest.fetch.max-rate-limit-wait-ms:30000}")
+    private long maxRateLimitWaitMs;
+
+    public FetchCycleExecutor(DataSourceStatusService dataSourceStatusService,
+            CircuitBreakerRegistry circuitBreakers,
+            @Qualifier("persistenceScheduler") Scheduler persistenceScheduler) {
+        this.dataSourceStatusService = dataSourceStatusService;
+        this.circuitBreakers = circuitBreakers;
+        this.persistenceScheduler = persistenceScheduler;
+    }
+
+    /**
+     * Fetches every target through {@code fetch} and summarizes the cycle.
+     * A fetch that emits a value counts as ok, one that completes empty
+     * (nothing to store) or is refused by the source's open circuit breaker
+     * or rate limiter as skipped, and one that errors or times out as failed.
+     */
+    public <T> Mono<FetchCycleSummary> execute(String sourceName, Iterable<T> targets,
+            Function<? super T, ? extends Mono<?>> fetch) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return Flux.fromIterable(targets)
+                    .flatMap(target -> fetchOne(sourceName, target, fetch), concurrency)
+                    .collect(() -> new int[Outcome.values().length],
+                            (counts, outcome) -> counts[outcome.ordinal()]++)
+                    .map(counts -> new FetchCycleSummary(sourceName,
+                            counts[Outcome.OK.ordinal()],
+                            counts[Outcome.FAILED.ordinal()],
+                            counts[Outcome.SKIPPED.ordinal()],
+                            Duration.ofNanos(System.nanoTime() - start)));
+        }).doOnNext(summary -> logger.debug("Fetch cycle complete - {}", summary));
+    }
+
+    /**
+     * Variant of {@link #execute} for sources that accept several targets per
+     * upstream request. Targets are split into chunks of {@code chunkSize} and
+     * each chunk reports its own partial summary, which are added together.
+     */
+    public <T> Mono<FetchCycleSummary> executeChunked(String sourceName, List<T> targets, int chunkSize,
+            Function<List<T>, Mono<FetchCycleSummary>> fetchChunk) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            List<List<T>> chunks = new ArrayList<>();
+            for (int i = 0; i < targets.size(); i += chunkSize) {
+                chunks.add(targets.subList(i, Math.min(i + chunkSize, targets.size())));
+            }
+            return Flux.fromIterable(chunks)
+                    .flatMap(chunk -> fetchChunk.apply(chunk)
+                            .onErrorResume(error -> {
+                                logger.error("Chunk of {} targets from {} failed: {}",
+                                        chunk.size(), sourceName, error.getMessage());
+                                return Mono.just(new FetchCycleSummary(sourceName, 0, chunk.size(), 0,
+                                        Duration.ZERO));
+                            }), concurrency)
+                    .reduce(FetchCycleSummary.empty(sourceName), FetchCycleSummary::plus)
+                    .map(summary -> summary.withWallTime(Duration.ofNanos(System.nanoTime() - start)));
+        }).doOnNext(summary -> logger.debug("Fetch cycle complete - {}", summary));
+    }
+
+    /**
+     * Applies the per-station deadline to {@code call}. Time its requests
+     * spend queued by the client-side rate limiter is added to the deadline
+     * rather than eaten out of it; a request whose slot is more than
+     * {@code ingest.fetch.max-rate-limit-wait-ms} away fails at once with
+     * {@link RateLimitedException} instead of waiting.
+     */
+    public <T> Mono<T> withStationTimeout(Mono<T> call) {
+        return Mono.defer(() -> {
+            AtomicLong rateLimitWait = new AtomicLong();
+            return call
+                    .timeout(deadline(Duration.ofMillis(stationTimeoutMs), rateLimitWait, 0))
+                    .contextWrite(context -> context
+                            .put(RateLimitingFilter.MAX_WAIT, Duration.ofMillis(maxRateLimitWaitMs))
+                            .put(RateLimitingFilter.WAIT_ACCUMULATOR, rateLimitWait));
+        });
+    }
+
+    // Fires after {@code delay}, extended by any rate-limit wait recorded beyond what is already covered
+    private static Mono<Long> deadline(Duration delay, AtomicLong rateLimitWait, long covered) {
+        return Mono.delay(delay).then(Mono.defer(() -> {
+            long waited = rateLimitWait.get();
+            return waited > covered
+                    ? deadline(Duration.ofNanos(waited - covered), rateLimitWait, waited)
+                    : Mono.just(waited);
+        }));
+    }
+
+    private <T> Mono<Outcome> fetchOne(String sourceName, T target, Function<? super T, ? extends Mono<?>> fetch) {
+        return circuitBreakers.get(sourceName)
+                // Validators are kept only once the fetched data is stored
+                .protect(withStationTimeout(ConditionalGetFilter.rememberOnSuccess(
+                        Mono.defer(() -> fetch.apply(target)))))
+                // Timeouts fire on a parallel worker; recording them is a blocking write
+                .publishOn(persistenceScheduler)
+                .map(result -> Outcome.OK)
+                .defaultIfEmpty(Outcome.SKIPPED)
+                .onErrorResume(error -> {
+                    if (error instanceof CircuitOpenException || error instanceof RateLimitedException) {
+                        logger.debug("Skipping {} for {}: {}", sourceName, target, error.getMessage());
+                        return Mono.just(Outcome.SKIPPED);
+                    }
+                    if (error instanceof TimeoutException) {
+                        logger.warn("Fetch from {} for {} timed out after {} ms", sourceName, target, stationTimeoutMs);
+                        dataSourceStatusService.recordError(sourceName,
+                                "Fetch timed out after " + stationTimeoutMs + " ms");
+                    }
+                    return Mono.just(Outcome.FAILED);
+                });
+    }
+}
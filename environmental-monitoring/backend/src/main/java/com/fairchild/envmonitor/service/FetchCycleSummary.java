@@ -0,0 +1,72 @@
+package com.fairchild.envmonitor.service;
+
+import java.time.Duration;
+
+/**
+ * Outcome of one polling cycle for a data source: how many targets were
+ * fetched and stored, how many failed or timed out, how many produced no
+ * usable data, and how long the whole fan-out took.
+ */
+public class FetchCycleSummary {
+
+    private final String sourceName;
+    private final int ok;
+    private final int failed;
+    private final int skipped;
+    private final Duration wallTime;
+
+    public FetchCycleSummary(String sourceName, int ok, int failed, int skipped, Duration wallTime) {
+        this.sourceName = sourceName;
+        this.ok = ok;
+        this.failed = failed;
+        this.skipped = skipped;
+        this.wallTime = wallTime;
+    }
+
+    public static FetchCycleSummary empty(String sourceName) {
+        return new FetchCycleSummary(sourceName, 0, 0, 0, Duration.ZERO);
+    }
+
+    /**
+     * Adds the counts of another partial summary for the same source. Wall
+     * time is not additive across concurrent work, so the longer one is kept.
+     */
+    public FetchCycleSummary plus(FetchCycleSummary other) {
+        return new FetchCycleSummary(sourceName, ok + other.ok, failed + other.failed, skipped + other.skipped,
+                wallTime.compareTo(other.wallTime) >= 0 ? wallTime : other.wallTime);
+    }
+
+    public FetchCycleSummary withWallTime(Duration wallTime) {
+        return new FetchCycleSummary(sourceName, ok, failed, skipped, wallTime);
+    }
+
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    public int getOk() {
+        return ok;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public int getTotal() {
+        return ok + failed + skipped;
+    }
+
+    public Duration getWallTime() {
+        return wallTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: ok=%d failed=%d skipped=%d in %d ms",
+                sourceName, ok, failed, skipped, wallTime.toMillis());
+    }
+}
@@ -1,22 +1,34 @@
 package com.fairchild.envmonitor.service;
 
+import com.fairchild.envmonitor.entity.DataSourceStatus;
 import com.fairchild.envmonitor.entity.FireData;
 import com.fairchild.envmonitor.repository.FireDataRepository;
+import com.fairchild.envmonitor.repository.UpsertResult;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class FireDataService {
@@ -26,81 +38,211 @@ public class FireDataService {
     private final FireDataRepository fireDataRepository;
     private final DataSourceStatusService dataSourceStatusService;
     private final ObjectMapper objectMapper;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final Scheduler persistenceScheduler;
 
-    // NIFC (National Interagency Fire Center) active fire perimeters URL
-    private static final String FIRE_DATA_URL = "https://services3.arcgis.com/T4QMspbfLg3qTGWY/arcgis/rest/services/Current_WildlandFire_Perimeters/FeatureServer/0/query";
+    @Value("${ingest.writer.batch-size:500}")
+    private int upsertBatchSize;
+
+    @Value("${external-apis.nifc.edit-date-field:poly_DateCurrent}")
+    private String editDateField;
+
+    @Value("${external-apis.nifc.page-size:2000}")
+    private int pageSize;
+
+    @Value("${external-apis.nifc.full-sync-interval-hours:24}")
+    private long fullSyncIntervalHours;
+
+    private static final String FIRE_SOURCE = "fire-data";
+
+    // Douglas-Peucker tolerances, roughly 10 m, 100 m and 1 km
+    private static final double FINE_TOLERANCE_DEGREES = 0.0001;
+    private static final double MEDIUM_TOLERANCE_DEGREES = 0.001;
+    private static final double COARSE_TOLERANCE_DEGREES = 0.01;
+
+    private static final DateTimeFormatter ARCGIS_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
 
     public FireDataService(@Qualifier("genericWebClient") WebClient genericWebClient,
             FireDataRepository fireDataRepository,
             DataSourceStatusService dataSourceStatusService,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            CircuitBreakerRegistry circuitBreakers,
+            @Qualifier("persistenceScheduler") Scheduler persistenceScheduler) {
         this.genericWebClient = genericWebClient;
         this.fireDataRepository = fireDataRepository;
         this.dataSourceStatusService = dataSourceStatusService;
         this.objectMapper = objectMapper;
+        this.circuitBreakers = circuitBreakers;
+        this.persistenceScheduler = persistenceScheduler;
     }
 
     public Mono<Void> fetchAndStoreFireData() {
-        logger.info("Starting fire data fetch from NIFC");
-
-        return genericWebClient
-                .get()
-                .uri(uriBuilder -> uriBuilder
-                        .scheme("https")
-                        .host("services3.arcgis.com")
-                        .path("/T4QMspbfLg3qTGWY/arcgis/rest/services/Current_WildlandFire_Perimeters/FeatureServer/0/query")
-                        .queryParam("where", "1=1")
-                        .queryParam("outFields", "*")
-                        .queryParam("f", "json")
-                        .queryParam("returnGeometry", "true")
-                        .queryParam("spatialRel", "esriSpatialRelIntersects")
-                        .queryParam("outSR", "4326")
-                        .build())
-                .retrieve()
-                .bodyToMono(JsonNode.class)
-                .map(this::parseFireDataResponse)
-                .doOnSuccess(count -> {
-                    logger.info("Successfully processed {} fire records", count);
-                    dataSourceStatusService.recordSuccessfulFetch("fire-data");
+        return Mono.fromCallable(() -> dataSourceStatusService.getDataSourceStatus(FIRE_SOURCE))
+                .subscribeOn(persistenceScheduler)
+                .flatMap(status -> {
+                    FireSyncPass pass = startSyncPass(status.orElse(null));
+                    if (pass.full) {
+                        logger.info("Starting full fire data sync from NIFC");
+                    } else {
+                        logger.info("Starting incremental fire data sync from NIFC (edited since {})", pass.since);
+                    }
+                    return circuitBreakers.get(FIRE_SOURCE).protect(fetchPage(pass, 0)
+                                    .expand(page -> page.exceededTransferLimit
+                                            ? fetchPage(pass, page.nextOffset)
+                                            : Mono.empty())
+                                    .reduce(UpsertResult.empty(), (result, page) -> result.plus(page.result)))
+                            .doOnNext(result -> finishSyncPass(pass, result));
                 })
                 .doOnError(error -> {
+                    if (error instanceof CircuitOpenException) {
+                        logger.info("Skipping fire data sync: {}", error.getMessage());
+                        return;
+                    }
                     logger.error("Error fetching fire data: {}", error.getMessage());
-                    dataSourceStatusService.recordError("fire-data", error.getMessage());
+                    dataSourceStatusService.recordError(FIRE_SOURCE, error.getMessage());
                 })
+                .onErrorResume(CircuitOpenException.class, error -> Mono.empty())
                 .then();
     }
 
-    private Integer parseFireDataResponse(JsonNode response) {
-        try {
-            JsonNode features = response.get("features");
-            if (features == null || !features.isArray()) {
-                logger.warn("No features found in fire data response");
-                return 0;
-            }
+    /**
+     * A sync is incremental when a previous pass left a high-water mark and
+     * the last full pass is recent enough; otherwise every perimeter is
+     * requested again so that fires removed upstream can be deleted here.
+     */
+    private FireSyncPass startSyncPass(DataSourceStatus status) {
+        OffsetDateTime highWaterMark = status != null ? status.getSyncHighWaterMark() : null;
+        OffsetDateTime lastFullSync = status != null ? status.getLastFullSync() : null;
+        boolean full = highWaterMark == null || lastFullSync == null
+                || lastFullSync.isBefore(OffsetDateTime.now().minusHours(fullSyncIntervalHours));
+        return new FireSyncPass(full, full ? null : highWaterMark);
+    }
 
-            int processedCount = 0;
-            for (JsonNode feature : features) {
-                FireData fireData = parseFireFeature(feature);
-                if (fireData != null) {
-                    // Check if fire already exists, update if it does
-                    Optional<FireData> existing = fireDataRepository.findByFireId(fireData.getFireId());
-                    if (existing.isPresent()) {
-                        FireData existingFire = existing.get();
-                        updateFireData(existingFire, fireData);
-                        fireDataRepository.save(existingFire);
-                    } else {
-                        fireDataRepository.save(fireData);
-                    }
-                    processedCount++;
+    private Mono<FirePage> fetchPage(FireSyncPass pass, int offset) {
+        return Mono.defer(() -> {
+            // Perimeter geometry can run to tens of megabytes in fire season, so
+            // features are decoded and written one at a time as the body arrives
+            FeatureCollectionDecoder decoder = new FeatureCollectionDecoder(objectMapper);
+            AtomicInteger decoded = new AtomicInteger();
+            return genericWebClient
+                    .get()
+                    .uri(uriBuilder -> uriBuilder
+                            .scheme("https")
+                            .host("services3.arcgis.com")
+                            .path("/T4QMspbfLg3qTGWY/arcgis/rest/services/Current_WildlandFire_Perimeters/FeatureServer/0/query")
+                            .queryParam("where", "{where}")
+                            .queryParam("outFields", "*")
+                            .queryParam("f", "json")
+                            .queryParam("returnGeometry", "true")
+                            .queryParam("spatialRel", "esriSpatialRelIntersects")
+                            .queryParam("outSR", "4326")
+                            // Paging needs a stable order across requests
+                            .queryParam("orderByFields", "OBJECTID ASC")
+                            .queryParam("resultOffset", offset)
+                            .queryParam("resultRecordCount", pageSize)
+                            .build(whereClause(pass)))
+                    .retrieve()
+                    .bodyToFlux(DataBuffer.class)
+                    .transform(decoder::decode)
+                    .publishOn(persistenceScheduler)
+                    .doOnNext(feature -> {
+                        decoded.incrementAndGet();
+                        pass.recordEditDate(feature.path("attributes").path(editDateField));
+                    })
+                    .mapNotNull(feature -> {
+                        FireData fireData = parseFireFeature(feature);
+                        if (fireData == null) {
+                            pass.recordSkipped();
+                            return null;
+                        }
+                        // Seen even if not storable this time, so an existing row is kept
+                        pass.recordSeen(fireData.getFireId());
+                        return isStorable(fireData) ? fireData : null;
+                    })
+                    // One existence query and one JDBC batch per window of fires
+                    .buffer(upsertBatchSize)
+                    .concatMap(batch -> Mono.fromCallable(() -> fireDataRepository.upsertAll(batch))
+                            .subscribeOn(persistenceScheduler))
+                    .reduce(UpsertResult.empty(), UpsertResult::plus)
+                    .flatMap(result -> checkForServiceError(decoder).then(Mono.fromSupplier(() ->
+                            nextPage(pass, result, decoder, offset, decoded.get()))));
+        });
+    }
+
+    /**
+     * The server may cap a page below {@code resultRecordCount} (its
+     * {@code maxRecordCount}) and still report more, so the next page starts
+     * after the features actually returned, not after {@code pageSize}.
+     */
+    private FirePage nextPage(FireSyncPass pass, UpsertResult result, FeatureCollectionDecoder decoder,
+            int offset, int decoded) {
+        boolean more = decoder.getRootFields().path("exceededTransferLimit").asBoolean(false);
+        if (more && decoded == 0) {
+            // Paging cannot advance; stop rather than request the same offset forever
+            logger.warn("NIFC reported more fires past offset {} but returned none; ending pass early", offset);
+            pass.recordSkipped();
+            more = false;
+        }
+        return new FirePage(result, more, offset + decoded);
+    }
+
+    private String whereClause(FireSyncPass pass) {
+        if (pass.full) {
+            return "1=1";
+        }
+        // Inclusive bound: re-reading features at the mark is harmless, the
+        // upsert reports them as unchanged
+        return editDateField + " >= TIMESTAMP '" + ARCGIS_TIMESTAMP.format(pass.since) + "'";
+    }
+
+    private void finishSyncPass(FireSyncPass pass, UpsertResult result) {
+        logger.info("Successfully processed {} fire records ({})", result.getTotal(), result);
+
+        if (pass.full) {
+            // An empty pass more likely means a broken query than no fires at all
+            if (pass.seenFireIds.isEmpty()) {
+                logger.warn("Full fire sync returned no incidents; skipping reconcile of deleted fires");
+            } else if (pass.skipped.get() > 0) {
+                // Fires we failed to read would otherwise be deleted as gone
+                logger.warn("Full fire sync skipped {} features; skipping reconcile of deleted fires",
+                        pass.skipped.get());
+            } else {
+                int deleted = fireDataRepository.deleteAllExcept(pass.seenFireIds);
+                if (deleted > 0) {
+                    logger.info("Removed {} fires no longer reported by NIFC", deleted);
                 }
             }
+        }
 
-            return processedCount;
+        OffsetDateTime highWaterMark = pass.getHighWaterMark();
+        if (highWaterMark == null || (pass.since != null && highWaterMark.isBefore(pass.since))) {
+            highWaterMark = pass.since;
+        }
+        dataSourceStatusService.recordSuccessfulFetch(FIRE_SOURCE);
+        dataSourceStatusService.recordSyncCheckpoint(FIRE_SOURCE, highWaterMark,
+                pass.full ? OffsetDateTime.now() : null);
+    }
 
-        } catch (Exception e) {
-            logger.error("Error parsing fire data response: {}", e.getMessage());
-            return 0;
+    /**
+     * ArcGIS reports query failures as a 200 response carrying an
+     * {@code error} object instead of {@code features}.
+     */
+    private Mono<Void> checkForServiceError(FeatureCollectionDecoder decoder) {
+        JsonNode error = decoder.getRootFields().get("error");
+        if (error != null && !error.isNull()) {
+            return Mono.error(new IllegalStateException(
+                    "NIFC query failed: " + error.path("message").asText(error.toString())));
+        }
+        if (!decoder.hasFeatures()) {
+            logger.warn("No features found in fire data response");
         }
+        return Mono.empty();
+    }
+
+    // fire_id is the upsert key and the location columns are NOT NULL
+    private boolean isStorable(FireData fireData) {
+        return fireData.getFireId() != null && fireData.getLatitude() != null && fireData.getLongitude() != null;
     }
 
     private FireData parseFireFeature(JsonNode feature) {
@@ -126,21 +268,22 @@ public class FireDataService {
                 fireData.setName(nameNode.asText());
             }
 
-            // Parse location from geometry centroid
-            if (geometry != null && geometry.get("rings") != null) {
-                // Calculate centroid of the polygon
-                JsonNode rings = geometry.get("rings");
-                if (rings.isArray() && rings.size() > 0) {
-                    JsonNode firstRing = rings.get(0);
-                    if (firstRing.isArray() && firstRing.size() > 0) {
-                        // Use first coordinate as approximate center
-                        JsonNode firstCoord = firstRing.get(0);
-                        if (firstCoord.isArray() && firstCoord.size() >= 2) {
-                            fireData.setLongitude(new BigDecimal(firstCoord.get(0).asDouble()));
-                            fireData.setLatitude(new BigDecimal(firstCoord.get(1).asDouble()));
-                        }
-                    }
-                }
+            // Location, extent and simplified outlines from the perimeter polygon
+            FirePerimeterGeometry perimeter = FirePerimeterGeometry.fromEsriRings(geometry);
+            if (perimeter != null) {
+                double[] centroid = perimeter.centroid();
+                fireData.setLongitude(coordinate(centroid[0]));
+                fireData.setLatitude(coordinate(centroid[1]));
+
+                double[] bounds = perimeter.bounds();
+                fireData.setBboxMinLon(coordinate(bounds[0]));
+                fireData.setBboxMinLat(coordinate(bounds[1]));
+                fireData.setBboxMaxLon(coordinate(bounds[2]));
+                fireData.setBboxMaxLat(coordinate(bounds[3]));
+
+                fireData.setPerimeterFine(perimeter.encodeSimplified(FINE_TOLERANCE_DEGREES));
+                fireData.setPerimeterMedium(perimeter.encodeSimplified(MEDIUM_TOLERANCE_DEGREES));
+                fireData.setPerimeterCoarse(perimeter.encodeSimplified(COARSE_TOLERANCE_DEGREES));
             }
 
             // Parse discovery date
@@ -189,7 +332,11 @@ public class FireDataService {
                 fireData.setIncidentType(typeNode.asText());
             }
 
-            // Store raw data
+            // Store raw data; the full-resolution geometry lives on only as
+            // the simplified perimeters above
+            if (feature instanceof ObjectNode) {
+                ((ObjectNode) feature).remove("geometry");
+            }
             fireData.setRawData(feature);
 
             return fireData;
@@ -200,18 +347,8 @@ public class FireDataService {
         }
     }
 
-    private void updateFireData(FireData existing, FireData newData) {
-        // Update fields that might change
-        if (newData.getName() != null)
-            existing.setName(newData.getName());
-        if (newData.getContainmentDate() != null)
-            existing.setContainmentDate(newData.getContainmentDate());
-        if (newData.getFireSizeAcres() != null)
-            existing.setFireSizeAcres(newData.getFireSizeAcres());
-        if (newData.getFireStatus() != null)
-            existing.setFireStatus(newData.getFireStatus());
-        if (newData.getRawData() != null)
-            existing.setRawData(newData.getRawData());
+    private static BigDecimal coordinate(double degrees) {
+        return BigDecimal.valueOf(degrees).setScale(7, RoundingMode.HALF_UP);
     }
 
     public List<FireData> getRecentlyUpdatedFires(int hours) {
@@ -235,4 +372,54 @@ public class FireDataService {
     public List<String> getFireStatuses() {
         return fireDataRepository.findDistinctFireStatuses();
     }
+
+    /** State shared by the pages of one sync run. */
+    private static final class FireSyncPass {
+        final boolean full;
+        final OffsetDateTime since;
+        final Set<String> seenFireIds = ConcurrentHashMap.newKeySet();
+        final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicLong maxEditMillis = new AtomicLong(Long.MIN_VALUE);
+
+        FireSyncPass(boolean full, OffsetDateTime since) {
+            this.full = full;
+            this.since = since;
+        }
+
+        // Esri date fields are epoch milliseconds
+        void recordEditDate(JsonNode editDate) {
+            if (editDate.isNumber()) {
+                maxEditMillis.accumulateAndGet(editDate.asLong(), Math::max);
+            }
+        }
+
+        void recordSeen(String fireId) {
+            if (fireId != null) {
+                seenFireIds.add(fireId);
+            }
+        }
+
+        // A feature that could not be stored, or a page that could not be fetched
+        void recordSkipped() {
+            skipped.incrementAndGet();
+        }
+
+        OffsetDateTime getHighWaterMark() {
+            long millis = maxEditMillis.get();
+            return millis == Long.MIN_VALUE ? null
+                    : OffsetDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+        }
+    }
+
+    private static final class FirePage {
+        final UpsertResult result;
+        final boolean exceededTransferLimit;
+        final int nextOffset;
+
+        FirePage(UpsertResult result, boolean exceededTransferLimit, int nextOffset) {
+            this.result = result;
+            this.exceededTransferLimit = exceededTransferLimit;
+            this.nextOffset = nextOffset;
+        }
+    }
 }
@@ -0,0 +1,215 @@
+package com.fairchild.envmonitor.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Planar geometry for Esri polygon perimeters in WGS84 (x = longitude,
+ * y = latitude): area-weighted centroid, bounding box, Douglas-Peucker
+ * simplification and Google encoded polylines. Fire perimeters are small
+ * enough that treating degrees as planar coordinates is accurate to well
+ * within a perimeter's own vertex spacing.
+ */
+final class FirePerimeterGeometry {
+
+    private static final double POLYLINE_PRECISION = 1e5;
+
+    // Separates rings in an encoded perimeter; never produced by the encoding itself
+    static final char RING_SEPARATOR = ' ';
+
+    private final List<double[][]> rings;
+
+    private FirePerimeterGeometry(List<double[][]> rings) {
+        this.rings = rings;
+    }
+
+    /**
+     * Reads the {@code rings} of an Esri polygon geometry. Returns null when
+     * the geometry has no ring with at least three vertices.
+     */
+    static FirePerimeterGeometry fromEsriRings(JsonNode geometry) {
+        JsonNode ringsNode = geometry != null ? geometry.get("rings") : null;
+        if (ringsNode == null || !ringsNode.isArray()) {
+            return null;
+        }
+        List<double[][]> rings = new ArrayList<>(ringsNode.size());
+        for (JsonNode ringNode : ringsNode) {
+            List<double[]> points = new ArrayList<>(ringNode.size());
+            for (JsonNode coord : ringNode) {
+                if (coord.isArray() && coord.size() >= 2 && coord.get(0).isNumber() && coord.get(1).isNumber()) {
+                    points.add(new double[] {coord.get(0).asDouble(), coord.get(1).asDouble()});
+                }
+            }
+            if (points.size() >= 3) {
+                rings.add(points.toArray(new double[0][]));
+            }
+        }
+        return rings.isEmpty() ? null : new FirePerimeterGeometry(rings);
+    }
+
+    /**
+     * Area-weighted centroid as {lon, lat}. Esri outer rings and holes wind
+     * in opposite directions, so summing signed areas subtracts the holes.
+     * Falls back to the vertex average for degenerate (zero-area) input.
+     */
+    double[] centroid() {
+        double area = 0;
+        double cx = 0;
+        double cy = 0;
+        for (double[][] ring : rings) {
+            // Relative to the first vertex to keep the cross products well conditioned
+            double ox = ring[0][0];
+            double oy = ring[0][1];
+            for (int i = 0, j = ring.length - 1; i < ring.length; j = i++) {
+                double xi = ring[i][0] - ox;
+                double yi = ring[i][1] - oy;
+                double xj = ring[j][0] - ox;
+                double yj = ring[j][1] - oy;
+                double cross = xj * yi - xi * yj;
+                area += cross;
+                cx += (xj + xi + 3 * ox) * cross;
+                cy += (yj + yi + 3 * oy) * cross;
+            }
+        }
+        if (Math.abs(area) < 1e-18) {
+            return vertexAverage();
+        }
+        return new double[] {cx / (3 * area), cy / (3 * area)};
+    }
+
+    /** Bounding box as {minLon, minLat, maxLon, maxLat}. */
+    double[] bounds() {
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (double[][] ring : rings) {
+            for (double[] point : ring) {
+                minX = Math.min(minX, point[0]);
+                minY = Math.min(minY, point[1]);
+                maxX = Math.max(maxX, point[0]);
+                maxY = Math.max(maxY, point[1]);
+            }
+        }
+        return new double[] {minX, minY, maxX, maxY};
+    }
+
+    /**
+     * Simplifies every ring with Douglas-Peucker at {@code tolerance} degrees
+     * and encodes the result as polylines joined by {@link #RING_SEPARATOR}.
+     * Rings that collapse below a triangle are dropped; returns null if none
+     * survive.
+     */
+    String encodeSimplified(double tolerance) {
+        StringBuilder encoded = new StringBuilder();
+        for (double[][] ring : rings) {
+            double[][] simplified = simplify(ring, tolerance);
+            // A closed triangle needs four points including the repeated start
+            if (simplified.length < 4) {
+                continue;
+            }
+            if (encoded.length() > 0) {
+                encoded.append(RING_SEPARATOR);
+            }
+            encodePolyline(simplified, encoded);
+        }
+        return encoded.length() > 0 ? encoded.toString() : null;
+    }
+
+    static double[][] simplify(double[][] points, double tolerance) {
+        if (points.length <= 2) {
+            return points;
+        }
+        boolean[] keep = new boolean[points.length];
+        keep[0] = true;
+        keep[points.length - 1] = true;
+
+        // Explicit stack: perimeters can have tens of thousands of vertices
+        int[] stack = new int[2 * points.length];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = points.length - 1;
+        double toleranceSquared = tolerance * tolerance;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            double maxDistance = -1;
+            int index = -1;
+            for (int i = first + 1; i < last; i++) {
+                double distance = segmentDistanceSquared(points[i], points[first], points[last]);
+                if (distance > maxDistance) {
+                    maxDistance = distance;
+                    index = i;
+                }
+            }
+            if (index >= 0 && maxDistance > toleranceSquared) {
+                keep[index] = true;
+                stack[top++] = first;
+                stack[top++] = index;
+                stack[top++] = index;
+                stack[top++] = last;
+            }
+        }
+
+        List<double[]> kept = new ArrayList<>();
+        for (int i = 0; i < points.length; i++) {
+            if (keep[i]) {
+                kept.add(points[i]);
+            }
+        }
+        return kept.toArray(new double[0][]);
+    }
+
+    private static double segmentDistanceSquared(double[] p, double[] a, double[] b) {
+        double dx = b[0] - a[0];
+        double dy = b[1] - a[1];
+        double lengthSquared = dx * dx + dy * dy;
+        double t = 0;
+        // Closed rings start and end on the same vertex, so the "segment" can be a point
+        if (lengthSquared > 0) {
+            t = Math.max(0, Math.min(1, ((p[0] - a[0]) * dx + (p[1] - a[1]) * dy) / lengthSquared));
+        }
+        double ex = p[0] - (a[0] + t * dx);
+        double ey = p[1] - (a[1] + t * dy);
+        return ex * ex + ey * ey;
+    }
+
+    // Google encoded polyline format: lat/lng pairs, 5 decimal places, zig-zag deltas
+    private static void encodePolyline(double[][] points, StringBuilder out) {
+        long previousLat = 0;
+        long previousLon = 0;
+        for (double[] point : points) {
+            long lat = Math.round(point[1] * POLYLINE_PRECISION);
+            long lon = Math.round(point[0] * POLYLINE_PRECISION);
+            encodeValue(lat - previousLat, out);
+            encodeValue(lon - previousLon, out);
+            previousLat = lat;
+            previousLon = lon;
+        }
+    }
+
+    private static void encodeValue(long value, StringBuilder out) {
+        long shifted = value < 0 ? ~(value << 1) : value << 1;
+        while (shifted >= 0x20) {
+            out.append((char) ((0x20 | (shifted & 0x1f)) + 63));
+            shifted >>= 5;
+        }
+        out.append((char) (shifted + 63));
+    }
+
+    private double[] vertexAverage() {
+        double x = 0;
+        double y = 0;
+        int count = 0;
+        for (double[][] ring : rings) {
+            for (double[] point : ring) {
+                x += point[0];
+                y += point[1];
+                count++;
+            }
+        }
+        return new double[] {x / count, y / count};
+    }
+}
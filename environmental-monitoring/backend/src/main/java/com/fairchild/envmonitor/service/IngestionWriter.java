@@ -0,0 +1,161 @@
+package com.fairchild.envmonitor.service;
+
+import com.fairchild.envmonitor.entity.AirQualityData;
+import com.fairchild.envmonitor.entity.MarineData;
+import com.fairchild.envmonitor.entity.MeteoData;
+import com.fairchild.envmonitor.entity.WeatherData;
+import com.fairchild.envmonitor.repository.AirQualityDataRepository;
+import com.fairchild.envmonitor.repository.InsertResult;
+import com.fairchild.envmonitor.repository.MarineDataRepository;
+import com.fairchild.envmonitor.repository.MeteoDataRepository;
+import com.fairchild.envmonitor.repository.WeatherDataRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Write-behind persistence stage shared by all ingest pipelines. Parsed
+ * entities are buffered in bounded per-type queues and written by a single
+ * flush thread as JDBC batches, either when a queue holds a full batch or
+ * every {@code ingest.writer.flush-interval-ms}, whichever comes first.
+ *
+ * <p>Writes go through the repositories' JDBC batch fragments rather than
+ * {@code save()}, because the entities' IDENTITY ids make Hibernate skip
+ * insert batching entirely. Fire perimeters are not buffered here: the hourly
+ * NIFC sync upserts them in windows itself (see {@link FireDataService}).
+ */
+@Component
+public class IngestionWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionWriter.class);
+
+    private final WriteBehindQueue<WeatherData> weatherQueue;
+    private final WriteBehindQueue<MeteoData> meteoQueue;
+    private final WriteBehindQueue<MarineData> marineQueue;
+    private final WriteBehindQueue<AirQualityData> airQualityQueue;
+    private final List<WriteBehindQueue<?>> queues;
+
+    private final ScheduledExecutorService flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ingest-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    public IngestionWriter(WeatherDataRepository weatherDataRepository,
+            MeteoDataRepository meteoDataRepository,
+            MarineDataRepository marineDataRepository,
+            AirQualityDataRepository airQualityDataRepository,
+            LatestObservationStore latestObservationStore,
+            ObservationRollupService observationRollupService,
+            MeterRegistry meterRegistry,
+            @Qualifier("persistenceScheduler") Scheduler persistenceScheduler,
+            @Value("${ingest.writer.queue-capacity:10000}") int queueCapacity,
+            @Value("${ingest.writer.batch-size:500}") int batchSize,
+            @Value("${ingest.writer.flush-interval-ms:1000}") long flushIntervalMs) {
+        this.weatherQueue = new WriteBehindQueue<>("weather", queueCapacity, batchSize,
+                written(weatherDataRepository::insertIgnoringDuplicates, (rows, result) -> {
+                    latestObservationStore.offerWeather(rows);
+                    observationRollupService.recordWeather(rows, result);
+                }),
+                this::requestFlush, persistenceScheduler, meterRegistry);
+        this.meteoQueue = new WriteBehindQueue<>("meteo", queueCapacity, batchSize,
+                written(meteoDataRepository::insertIgnoringDuplicates, observationRollupService::recordMeteo),
+                this::requestFlush, persistenceScheduler, meterRegistry);
+        this.marineQueue = new WriteBehindQueue<>("marine", queueCapacity, batchSize,
+                written(marineDataRepository::insertIgnoringDuplicates, (rows, result) -> {
+                    latestObservationStore.offerMarine(rows);
+                    observationRollupService.recordMarine(rows, result);
+                }),
+                this::requestFlush, persistenceScheduler, meterRegistry);
+        this.airQualityQueue = new WriteBehindQueue<>("air-quality", queueCapacity, batchSize,
+                written(airQualityDataRepository::insertIgnoringDuplicates, (rows, result) -> {
+                    latestObservationStore.offerAirQuality(rows);
+                    observationRollupService.recordAirQuality(rows, result);
+                }),
+                this::requestFlush, persistenceScheduler, meterRegistry);
+        this.queues = List.of(weatherQueue, meteoQueue, marineQueue, airQualityQueue);
+
+        flushExecutor.scheduleWithFixedDelay(this::flushAll, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public Mono<Boolean> submit(WeatherData weatherData) {
+        return weatherQueue.submit(weatherData);
+    }
+
+    public Mono<Boolean> submit(MeteoData meteoData) {
+        return meteoQueue.submit(meteoData);
+    }
+
+    public Mono<InsertResult> submitAll(List<MeteoData> meteoData) {
+        return meteoQueue.submitAll(meteoData);
+    }
+
+    public Mono<Boolean> submit(MarineData marineData) {
+        return marineQueue.submit(marineData);
+    }
+
+    public Mono<Boolean> submit(AirQualityData airQualityData) {
+        return airQualityQueue.submit(airQualityData);
+    }
+
+    // Once a batch is in the database its rows update the latest observations and the rollups
+    private static <T> Function<List<T>, InsertResult> written(Function<List<T>, InsertResult> batchWriter,
+            BiConsumer<List<T>, InsertResult> listener) {
+        return rows -> {
+            InsertResult result = batchWriter.apply(rows);
+            listener.accept(rows, result);
+            return result;
+        };
+    }
+
+    // Coalesces the size-triggered flushes of all queues into one pending task
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            try {
+                flushExecutor.execute(this::flushAll);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the final flush in shutdown() picks the rows up
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    private void flushAll() {
+        flushRequested.set(false);
+        for (WriteBehindQueue<?> queue : queues) {
+            try {
+                queue.flush();
+            } catch (Exception e) {
+                // Never let one failure cancel the periodic flush task
+                logger.error("Unexpected error flushing ingest queue", e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flushExecutor.shutdown();
+        if (flushExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+            // Drain anything submitted after the last scheduled flush
+            flushAll();
+        } else {
+            logger.warn("Ingest writer did not finish flushing within 10 seconds");
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.fairchild.envmonitor.service;
+
+import com.fairchild.envmonitor.entity.AirQualityData;
+import com.fairchild.envmonitor.entity.MarineData;
+import com.fairchild.envmonitor.entity.WeatherData;
+import com.fairchild.envmonitor.repository.AirQualityDataRepository;
+import com.fairchild.envmonitor.repository.MarineDataRepository;
+import com.fairchild.envmonitor.repository.WeatherDataRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Newest observation of every weather, marine and air quality station, kept
+ * in memory so "latest" reads never reach Postgres. {@link IngestionWriter}
+ * offers each batch once it has been written; the store is seeded from the
+ * database at startup and re-read every {@code ingest.latest.resync-interval-ms}
+ * to pick up stations polled by other replicas. Those reads only look back
+ * {@code ingest.latest.window-hours}, so a station silent for longer does not
+ * appear until it reports again.
+ *
+ * <p>Each source is an immutable map replaced as a whole on every change,
+ * so readers only pay for one volatile read. Rows stored by this node since
+ * the last resync carry no generated id or {@code createdAt}, as the batch
+ * insert does not read them back.
+ */
+@Component
+public class LatestObservationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatestObservationStore.class);
+
+    private final WeatherDataRepository weatherDataRepository;
+    private final MarineDataRepository marineDataRepository;
+    private final AirQualityDataRepository airQualityDataRepository;
+
+    private final Snapshot<WeatherData> weather =
+            new Snapshot<>(WeatherData::getStationId, WeatherData::getTimestamp);
+    private final Snapshot<MarineData> marine =
+            new Snapshot<>(MarineData::getStationId, MarineData::getTimestamp);
+    private final Snapshot<AirQualityData> airQuality =
+            new Snapshot<>(AirQualityData::getStationId, AirQualityData::getTimestamp);
+
+    @Value("${ingest.latest.window-hours:48}")
+    private int windowHours;
+
+    public LatestObservationStore(WeatherDataRepository weatherDataRepository,
+            MarineDataRepository marineDataRepository,
+            AirQualityDataRepository airQualityDataRepository) {
+        this.weatherDataRepository = weatherDataRepository;
+        this.marineDataRepository = marineDataRepository;
+        this.airQualityDataRepository = airQualityDataRepository;
+    }
+
+    @PostConstruct
+    public void seed() {
+        resync();
+        logger.info("Latest observations loaded for {} weather, {} marine and {} air quality stations",
+                weather.size(), marine.size(), airQuality.size());
+    }
+
+    @Scheduled(fixedDelayString = "${ingest.latest.resync-interval-ms:60000}",
+            initialDelayString = "${ingest.latest.resync-interval-ms:60000}")
+    public void resync() {
+        OffsetDateTime since = OffsetDateTime.now().minusHours(windowHours);
+        try {
+            weather.offerAll(weatherDataRepository.findLatestPerStation(since));
+            marine.offerAll(marineDataRepository.findLatestPerStation(since));
+            airQuality.offerAll(airQualityDataRepository.findLatestPerStation(since));
+        } catch (Exception e) {
+            // Keep serving what we have; ingest keeps this node's own stations current
+            logger.warn("Failed to load latest observations: {}", e.getMessage());
+        }
+    }
+
+    void offerWeather(List<WeatherData> rows) {
+        weather.offerAll(rows);
+    }
+
+    void offerMarine(List<MarineData> rows) {
+        marine.offerAll(rows);
+    }
+
+    void offerAirQuality(List<AirQualityData> rows) {
+        airQuality.offerAll(rows);
+    }
+
+    /** Newest weather observation of {@code stationId}, or null if none is known. */
+    public WeatherData getLatestWeather(String stationId) {
+        return weather.get(stationId);
+    }
+
+    public MarineData getLatestMarine(String stationId) {
+        return marine.get(stationId);
+    }
+
+    public AirQualityData getLatestAirQuality(String stationId) {
+        return airQuality.get(stationId);
+    }
+
+    /** Newest observation of every weather station; an unmodifiable snapshot. */
+    public Collection<WeatherData> getLatestWeather() {
+        return weather.values();
+    }
+
+    public Collection<MarineData> getLatestMarine() {
+        return marine.values();
+    }
+
+    public Collection<AirQualityData> getLatestAirQuality() {
+        return airQuality.values();
+    }
+
+    private static final class Snapshot<T> {
+        private final Function<T, String> stationId;
+        private final Function<T, OffsetDateTime> timestamp;
+        private volatile Map<String, T> latest = Map.of();
+
+        Snapshot(Function<T, String> stationId, Function<T, OffsetDateTime> timestamp) {
+            this.stationId = stationId;
+            this.timestamp = timestamp;
+        }
+
+        T get(String key) {
+            return key != null ? latest.get(key) : null;
+        }
+
+        Collection<T> values() {
+            return latest.values();
+        }
+
+        int size() {
+            return latest.size();
+        }
+
+        // Writers are serialized; a row replaces the current one unless it is older
+        synchronized void offerAll(Collection<T> rows) {
+            Map<String, T> current = latest;
+            Map<String, T> next = null;
+            for (T row : rows) {
+                String key = stationId.apply(row);
+                OffsetDateTime at = timestamp.apply(row);
+                if (key == null || at == null) {
+                    continue;
+                }
+                T existing = (next != null ? next : current).get(key);
+                if (existing == null || !at.isBefore(timestamp.apply(existing))) {
+                    if (next == null) {
+                        next = new HashMap<>(current);
+                    }
+                    next.put(key, row);
+                }
+            }
+            if (next != null) {
+                latest = Collections.unmodifiableMap(next);
+            }
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -24,43 +25,45 @@ public class MarineDataService {
     private final MarineDataRepository marineDataRepository;
     private final DataSourceStatusService dataSourceStatusService;
     private final ObjectMapper objectMapper;
-
-    // Default NOAA stations for marine data
-    private static final String[] DEFAULT_MARINE_STATIONS = {
-            "8518750", // The Battery, NY
-            "8443970", // Boston, MA
-            "8452660", // Newport, RI
-            "8531680", // Sandy Hook, NJ
-            "8534720", // Atlantic City, NJ
-            "8551910", // Cape May, NJ
-            "8570283", // Ocean City Inlet, MD
-            "8574680", // Chesapeake Bay Bridge Tunnel, VA
-            "8638610", // Sewells Point, VA
-            "8651370" // Duck, NC
-    };
+    private final FetchCycleExecutor fetchCycleExecutor;
+    private final IngestionWriter ingestionWriter;
+    private final StationRegistry stationRegistry;
+    private final LatestObservationStore latestObservationStore;
+    private final Scheduler persistenceScheduler;
 
     public MarineDataService(@Qualifier("marineDataWebClient") WebClient marineDataWebClient,
             MarineDataRepository marineDataRepository,
             DataSourceStatusService dataSourceStatusService,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            FetchCycleExecutor fetchCycleExecutor,
+            IngestionWriter ingestionWriter,
+            StationRegistry stationRegistry,
+            LatestObservationStore latestObservationStore,
+            @Qualifier("persistenceScheduler") Scheduler persistenceScheduler) {
         this.marineDataWebClient = marineDataWebClient;
         this.marineDataRepository = marineDataRepository;
         this.dataSourceStatusService = dataSourceStatusService;
         this.objectMapper = objectMapper;
+        this.fetchCycleExecutor = fetchCycleExecutor;
+        this.ingestionWriter = ingestionWriter;
+        this.stationRegistry = stationRegistry;
+        this.latestObservationStore = latestObservationStore;
+        this.persistenceScheduler = persistenceScheduler;
     }
 
-    public Mono<Void> fetchAndStoreMarineData() {
-        logger.info("Starting marine data fetch for all default stations");
+    public Mono<FetchCycleSummary> fetchAndStoreMarineData() {
+        logger.info("Starting marine data fetch for all registered stations");
+        return fetchAndStoreMarineData(stationRegistry.getDueStations("marine-data"));
+    }
 
-        return Mono.fromRunnable(() -> {
-            for (String stationId : DEFAULT_MARINE_STATIONS) {
-                fetchStationData(stationId)
-                        .doOnSuccess(data -> logger.info("Successfully fetched marine data for station: {}", stationId))
-                        .doOnError(
-                                error -> logger.error("Failed to fetch marine data for station: {}", stationId, error))
-                        .subscribe();
-            }
-        });
+    /** Fetches the given, already claimed, stations. */
+    public Mono<FetchCycleSummary> fetchAndStoreMarineData(List<RegisteredStation> stations) {
+        return fetchCycleExecutor.execute("marine-data", stations,
+                station -> fetchStationData(station.getStationId())
+                        .doOnNext(data -> {
+                            stationRegistry.recordObservation(station, data.getTimestamp());
+                            logger.info("Successfully fetched marine data for station: {}", station);
+                        }));
     }
 
     public Mono<MarineData> fetchStationData(String stationId) {
@@ -79,13 +82,13 @@ public class MarineDataService {
                         .build())
                 .retrieve()
                 .bodyToMono(JsonNode.class)
-                .map(response -> parseMarineResponse(response, stationId))
-                .doOnSuccess(marineData -> {
-                    if (marineData != null) {
-                        marineDataRepository.save(marineData);
-                        dataSourceStatusService.recordSuccessfulFetch("marine-data");
-                    }
-                })
+                .publishOn(persistenceScheduler)
+                .mapNotNull(response -> parseMarineResponse(response, stationId))
+                .flatMap(marineData -> ingestionWriter.submit(marineData)
+                        .doOnNext(inserted -> dataSourceStatusService.recordSuccessfulFetch("marine-data"))
+                        // An observation already stored under the same natural key completes empty (skipped)
+                        .filter(inserted -> inserted)
+                        .map(inserted -> marineData))
                 .doOnError(error -> {
                     logger.error("Error fetching marine data for station {}: {}", stationId, error.getMessage());
                     dataSourceStatusService.recordError("marine-data", error.getMessage());
@@ -153,6 +156,6 @@ public class MarineDataService {
     }
 
     public MarineData getLatestStationData(String stationId) {
-        return marineDataRepository.findLatestByStationId(stationId);
+        return latestObservationStore.getLatestMarine(stationId);
     }
 }
@@ -1,5 +1,7 @@
 package com.fairchild.envmonitor.service;
 
+import com.fairchild.envmonitor.config.ConditionalGetFilter;
+import com.fairchild.envmonitor.config.RateLimitedException;
 import com.fairchild.envmonitor.entity.MeteoData;
 import com.fairchild.envmonitor.repository.MeteoDataRepository;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -7,15 +9,24 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.codec.DecodingException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @Service
 public class MeteoService {
@@ -25,52 +36,170 @@ public class MeteoService {
     private final MeteoDataRepository meteoDataRepository;
     private final DataSourceStatusService dataSourceStatusService;
     private final ObjectMapper objectMapper;
+    private final FetchCycleExecutor fetchCycleExecutor;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final IngestionWriter ingestionWriter;
+    private final StationRegistry stationRegistry;
+    private final Scheduler persistenceScheduler;
 
-    // Default locations for weather monitoring
-    private static final Location[] DEFAULT_LOCATIONS = {
-            new Location(new BigDecimal("41.8781"), new BigDecimal("-87.6298")), // Chicago
-            new Location(new BigDecimal("34.0522"), new BigDecimal("-118.2437")), // Los Angeles
-            new Location(new BigDecimal("40.7128"), new BigDecimal("-74.0060")), // New York
-            new Location(new BigDecimal("39.7392"), new BigDecimal("-104.9903")), // Denver
-            new Location(new BigDecimal("29.7604"), new BigDecimal("-95.3698")), // Houston
-            new Location(new BigDecimal("47.6062"), new BigDecimal("-122.3321")), // Seattle
-            new Location(new BigDecimal("25.7617"), new BigDecimal("-80.1918")), // Miami
-            new Location(new BigDecimal("33.7490"), new BigDecimal("-84.3880")) // Atlanta
-    };
-
-    private static class Location {
-        final BigDecimal latitude;
-        final BigDecimal longitude;
-
-        Location(BigDecimal latitude, BigDecimal longitude) {
-            this.latitude = latitude;
-            this.longitude = longitude;
-        }
-    }
+    private static final String CURRENT_FIELDS =
+            "temperature_2m,relative_humidity_2m,precipitation,wind_speed_10m,wind_direction_10m,uv_index";
+
+    // Locations packed into one multi-location request; 1 disables batching
+    @Value("${external-apis.open-meteo.batch-size:50}")
+    private int batchSize;
 
     public MeteoService(@Qualifier("openMeteoWebClient") WebClient openMeteoWebClient,
             MeteoDataRepository meteoDataRepository,
             DataSourceStatusService dataSourceStatusService,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            FetchCycleExecutor fetchCycleExecutor,
+            CircuitBreakerRegistry circuitBreakers,
+            IngestionWriter ingestionWriter,
+            StationRegistry stationRegistry,
+            @Qualifier("persistenceScheduler") Scheduler persistenceScheduler) {
         this.openMeteoWebClient = openMeteoWebClient;
         this.meteoDataRepository = meteoDataRepository;
         this.dataSourceStatusService = dataSourceStatusService;
         this.objectMapper = objectMapper;
+        this.fetchCycleExecutor = fetchCycleExecutor;
+        this.circuitBreakers = circuitBreakers;
+        this.ingestionWriter = ingestionWriter;
+        this.stationRegistry = stationRegistry;
+        this.persistenceScheduler = persistenceScheduler;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public Mono<FetchCycleSummary> fetchAndStoreMeteoData() {
+        logger.info("Starting Open-Meteo weather data fetch for all registered locations");
+        return fetchAndStoreMeteoData(stationRegistry.getDueStations("open-meteo"));
+    }
+
+    /** Fetches the given, already claimed, locations. */
+    public Mono<FetchCycleSummary> fetchAndStoreMeteoData(List<RegisteredStation> stations) {
+        List<RegisteredStation> locations = StationRegistry.withCoordinates("open-meteo", stations);
+        if (batchSize <= 1) {
+            return fetchCycleExecutor.execute("open-meteo", locations, this::fetchAndLogLocation);
+        }
+        return fetchCycleExecutor.executeChunked("open-meteo", locations, batchSize, this::fetchLocationBatch);
+    }
+
+    private Mono<MeteoData> fetchAndLogLocation(RegisteredStation location) {
+        return fetchLocationData(location.getLatitude(), location.getLongitude())
+                .doOnNext(data -> {
+                    stationRegistry.recordObservation(location, data.getTimestamp());
+                    logger.info("Successfully fetched meteo data for location: {}, {}",
+                            location.getLatitude(), location.getLongitude());
+                });
+    }
+
+    /**
+     * Fetches a whole chunk of locations with one request. Open-Meteo accepts
+     * comma-separated coordinate lists and answers with an array in request
+     * order, so results are matched back to locations by position (the
+     * returned coordinates are snapped to the model grid and cannot be used).
+     * Locations the response marks as errors or cannot be parsed are retried
+     * one at a time, as is the whole chunk when the batch itself is unusable:
+     * an unparseable body, a result count that does not match the chunk, or
+     * a 4xx other than 429 (one bad location rejects the lot). Anything else
+     * (429, 5xx, timeouts, persistence errors) fails the chunk, since
+     * repeating it location by location would only hit the same problem.
+     */
+    private Mono<FetchCycleSummary> fetchLocationBatch(List<RegisteredStation> batch) {
+        String latitudes = batch.stream().map(location -> location.getLatitude().toPlainString())
+                .collect(Collectors.joining(","));
+        String longitudes = batch.stream().map(location -> location.getLongitude().toPlainString())
+                .collect(Collectors.joining(","));
+
+        Mono<FetchCycleSummary> stored = circuitBreakers.get("open-meteo")
+                .protect(fetchCycleExecutor.withStationTimeout(openMeteoWebClient
+                        .get()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/forecast")
+                                .queryParam("latitude", latitudes)
+                                .queryParam("longitude", longitudes)
+                                .queryParam("current", CURRENT_FIELDS)
+                                .queryParam("timezone", "auto")
+                                .queryParam("forecast_days", "1")
+                                .build())
+                        .retrieve()
+                        .bodyToMono(JsonNode.class)))
+                .publishOn(persistenceScheduler)
+                .flatMap(response -> storeBatchResponse(response, batch));
+
+        // Validators are kept only once the batch is stored
+        return ConditionalGetFilter.rememberOnSuccess(stored)
+                .onErrorResume(error -> error instanceof CircuitOpenException || error instanceof RateLimitedException,
+                        error -> {
+                            logger.debug("Skipping batched meteo fetch for {} locations: {}",
+                                    batch.size(), error.getMessage());
+                            return Mono.just(new FetchCycleSummary("open-meteo", 0, 0, batch.size(), Duration.ZERO));
+                        })
+                .doOnError(error -> dataSourceStatusService.recordError("open-meteo", error.getMessage()))
+                .onErrorResume(MeteoService::isBatchSpecific, error -> {
+                    logger.warn("Batched meteo fetch for {} locations failed, falling back to single requests: {}",
+                            batch.size(), error.getMessage());
+                    return fetchCycleExecutor.execute("open-meteo", batch, this::fetchAndLogLocation);
+                });
+    }
+
+    private static boolean isBatchSpecific(Throwable error) {
+        // Decoding failures may arrive wrapped in a WebClient exception
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof UnusableBatchResponseException || cause instanceof DecodingException) {
+                return true;
+            }
+        }
+        if (error instanceof WebClientResponseException) {
+            HttpStatusCode status = ((WebClientResponseException) error).getStatusCode();
+            return status.is4xxClientError() && status.value() != HttpStatus.TOO_MANY_REQUESTS.value();
+        }
+        return false;
     }
 
-    public Mono<Void> fetchAndStoreMeteoData() {
-        logger.info("Starting Open-Meteo weather data fetch for all default locations");
-
-        return Mono.fromRunnable(() -> {
-            for (Location location : DEFAULT_LOCATIONS) {
-                fetchLocationData(location.latitude, location.longitude)
-                        .doOnSuccess(data -> logger.info("Successfully fetched meteo data for location: {}, {}",
-                                location.latitude, location.longitude))
-                        .doOnError(error -> logger.error("Failed to fetch meteo data for location: {}, {}",
-                                location.latitude, location.longitude, error))
-                        .subscribe();
+    private Mono<FetchCycleSummary> storeBatchResponse(JsonNode response, List<RegisteredStation> batch) {
+        int returned = response.isArray() ? response.size() : 1;
+        if (returned != batch.size()) {
+            return Mono.error(new UnusableBatchResponseException(
+                    "Open-Meteo returned " + returned + " results for " + batch.size() + " locations"));
+        }
+        List<MeteoData> parsed = new ArrayList<>();
+        List<RegisteredStation> retry = new ArrayList<>();
+
+        for (int i = 0; i < batch.size(); i++) {
+            RegisteredStation location = batch.get(i);
+            JsonNode result = response.isArray() ? response.get(i) : response;
+            MeteoData meteoData = !result.path("error").asBoolean(false)
+                    ? parseMeteoResponse(result, location.getLatitude(), location.getLongitude())
+                    : null;
+            if (meteoData != null) {
+                // Already-stored observations are ignored by the registry, so no need to wait for the insert
+                stationRegistry.recordObservation(location, meteoData.getTimestamp());
+                parsed.add(meteoData);
+            } else {
+                retry.add(location);
+            }
+        }
+
+        Mono<FetchCycleSummary> stored = ingestionWriter.submitAll(parsed).map(result -> {
+            if (!parsed.isEmpty()) {
+                dataSourceStatusService.recordSuccessfulFetch("open-meteo");
+                logger.info("Successfully fetched meteo data for {} locations in one request ({})",
+                        parsed.size(), result);
             }
+            return new FetchCycleSummary("open-meteo", result.getInserted(), 0, result.getDuplicates(),
+                    Duration.ZERO);
         });
+        if (retry.isEmpty()) {
+            return stored;
+        }
+        logger.warn("Batched meteo response left {} of {} locations unusable, retrying them individually",
+                retry.size(), batch.size());
+        return stored.zipWith(fetchCycleExecutor.execute("open-meteo", retry, this::fetchAndLogLocation),
+                FetchCycleSummary::plus);
     }
 
     public Mono<MeteoData> fetchLocationData(BigDecimal latitude, BigDecimal longitude) {
@@ -80,20 +209,19 @@ public class MeteoService {
                         .path("/forecast")
                         .queryParam("latitude", latitude)
                         .queryParam("longitude", longitude)
-                        .queryParam("current",
-                                "temperature_2m,relative_humidity_2m,precipitation,wind_speed_10m,wind_direction_10m,uv_index")
+                        .queryParam("current", CURRENT_FIELDS)
                         .queryParam("timezone", "auto")
                         .queryParam("forecast_days", "1")
                         .build())
                 .retrieve()
                 .bodyToMono(JsonNode.class)
-                .map(response -> parseMeteoResponse(response, latitude, longitude))
-                .doOnSuccess(meteoData -> {
-                    if (meteoData != null) {
-                        meteoDataRepository.save(meteoData);
-                        dataSourceStatusService.recordSuccessfulFetch("open-meteo");
-                    }
-                })
+                .publishOn(persistenceScheduler)
+                .mapNotNull(response -> parseMeteoResponse(response, latitude, longitude))
+                .flatMap(meteoData -> ingestionWriter.submit(meteoData)
+                        .doOnNext(inserted -> dataSourceStatusService.recordSuccessfulFetch("open-meteo"))
+                        // An observation already stored under the same natural key completes empty (skipped)
+                        .filter(inserted -> inserted)
+                        .map(inserted -> meteoData))
                 .doOnError(error -> {
                     logger.error("Error fetching meteo data for location {}, {}: {}",
                             latitude, longitude, error.getMessage());
@@ -183,4 +311,11 @@ public class MeteoService {
         OffsetDateTime since = OffsetDateTime.now().minusHours(hours);
         return meteoDataRepository.findByBoundingBoxAndTimestamp(latMin, latMax, lonMin, lonMax, since);
     }
+
+    // The batch answer cannot be matched back to the chunk's locations
+    private static final class UnusableBatchResponseException extends RuntimeException {
+        UnusableBatchResponseException(String message) {
+            super(message);
+        }
+    }
 }
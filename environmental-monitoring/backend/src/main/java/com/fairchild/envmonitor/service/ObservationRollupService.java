@@ -0,0 +1,363 @@
+package com.fairchild.envmonitor.service;
+
+import com.fairchild.envmonitor.entity.AirQualityData;
+import com.fairchild.envmonitor.entity.MarineData;
+import com.fairchild.envmonitor.entity.MeteoData;
+import com.fairchild.envmonitor.entity.ObservationRollup;
+import com.fairchild.envmonitor.entity.WeatherData;
+import com.fairchild.envmonitor.repository.InsertResult;
+import com.fairchild.envmonitor.repository.ObservationRollupRepository;
+import com.fairchild.envmonitor.repository.RollupDelta;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Hourly and daily rollups (count, min, max, sum, last) of every numeric
+ * column of the station time series, so long chart windows read a few
+ * hundred buckets instead of every observation. Short windows can still be
+ * read raw with {@link #getRawSeries} and downsampled by the caller.
+ *
+ * <p>Rollups are maintained incrementally: {@link IngestionWriter} hands
+ * over each written batch and the rows that were new are merged into their
+ * buckets, wherever in time those fall. Every
+ * {@code ingest.rollup.reconcile-interval-ms} the lease holder recomputes
+ * the closed buckets of the last {@code ingest.rollup.reconcile-window-hours}
+ * from the raw tables, repairing buckets whose merge failed after the raw
+ * insert succeeded. If no rollups exist yet, the first run backfills all
+ * history.
+ *
+ * <p>Raw rows are committed before their deltas are merged, in a separate
+ * statement, so a rebuild of a bucket that is still receiving samples would
+ * count some of them twice and drop others. Rebuilds therefore stop at the
+ * last bucket that ended at least {@code ingest.rollup.settle-ms} ago; the
+ * open hour and day are left to the incremental path and repaired once
+ * closed. Merges run on the persistence scheduler, off the write-behind
+ * flush thread, so a long rebuild holding row locks never stalls ingest.
+ */
+@Service
+public class ObservationRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ObservationRollupService.class);
+
+    private static final String LEASE = "observation-rollup";
+    private static final int COORDINATE_SCALE = 7;
+
+    public enum Resolution {
+        HOURLY("1h", "hour", ChronoUnit.HOURS),
+        DAILY("1d", "day", ChronoUnit.DAYS);
+
+        private final String code;
+        private final String truncUnit;
+        private final ChronoUnit unit;
+
+        Resolution(String code, String truncUnit, ChronoUnit unit) {
+            this.code = code;
+            this.truncUnit = truncUnit;
+            this.unit = unit;
+        }
+
+        public String getCode() {
+            return code;
+        }
+
+        /** @throws IllegalArgumentException for an unknown code */
+        public static Resolution fromCode(String code) {
+            for (Resolution resolution : values()) {
+                if (resolution.code.equalsIgnoreCase(code)) {
+                    return resolution;
+                }
+            }
+            throw new IllegalArgumentException("Unknown resolution: " + code);
+        }
+
+        public Duration getBucketSize() {
+            return unit.getDuration();
+        }
+
+        OffsetDateTime bucketOf(OffsetDateTime at) {
+            return at.toInstant().truncatedTo(unit).atOffset(ZoneOffset.UTC);
+        }
+    }
+
+    private static final RollupSource<WeatherData> WEATHER = new RollupSource<>(
+            "weather.gov", "weather_data", "station_id", "station_id = ?",
+            WeatherData::getStationId, WeatherData::getTimestamp,
+            Map.of("temperature", WeatherData::getTemperature,
+                    "humidity", WeatherData::getHumidity,
+                    "pressure", WeatherData::getPressure,
+                    "wind_speed", WeatherData::getWindSpeed,
+                    "wind_direction", WeatherData::getWindDirection,
+                    "visibility", WeatherData::getVisibility));
+
+    // Open-Meteo rows have no station id; the numeric(10,7) coordinates as text stand in for one
+    private static final RollupSource<MeteoData> METEO = new RollupSource<>(
+            "open-meteo", "meteo_data", "latitude::text || ',' || longitude::text",
+            "latitude = ? AND longitude = ?",
+            row -> coordinateKey(row.getLatitude(), row.getLongitude()), MeteoData::getTimestamp,
+            Map.of("temperature_2m", MeteoData::getTemperature2m,
+                    "relative_humidity_2m", MeteoData::getRelativeHumidity2m,
+                    "precipitation", MeteoData::getPrecipitation,
+                    "wind_speed_10m", MeteoData::getWindSpeed10m,
+                    "wind_direction_10m", MeteoData::getWindDirection10m,
+                    "uv_index", MeteoData::getUvIndex));
+
+    private static final RollupSource<MarineData> MARINE = new RollupSource<>(
+            "marine-data", "marine_data", "station_id", "station_id = ?",
+            MarineData::getStationId, MarineData::getTimestamp,
+            Map.of("water_level", MarineData::getWaterLevel,
+                    "wave_height", MarineData::getWaveHeight,
+                    "wave_period", MarineData::getWavePeriod,
+                    "wave_direction", MarineData::getWaveDirection,
+                    "water_temperature", MarineData::getWaterTemperature,
+                    "salinity", MarineData::getSalinity));
+
+    private static final RollupSource<AirQualityData> AIR_QUALITY = new RollupSource<>(
+            "air-quality", "air_quality_data", "station_id", "station_id = ?",
+            AirQualityData::getStationId, AirQualityData::getTimestamp,
+            Map.of("aqi", AirQualityData::getAqi,
+                    "pm25", AirQualityData::getPm25,
+                    "pm10", AirQualityData::getPm10,
+                    "no2", AirQualityData::getNo2,
+                    "o3", AirQualityData::getO3,
+                    "so2", AirQualityData::getSo2,
+                    "co", AirQualityData::getCo));
+
+    private static final List<RollupSource<?>> SOURCES = List.of(WEATHER, METEO, MARINE, AIR_QUALITY);
+
+    private final ObservationRollupRepository observationRollupRepository;
+    private final SchedulerLeaseService schedulerLeaseService;
+    private final Scheduler persistenceScheduler;
+
+    @Value("${ingest.rollup.reconcile-window-hours:48}")
+    private long reconcileWindowHours;
+
+    @Value("${ingest.rollup.settle-ms:300000}")
+    private long settleMs;
+
+    public ObservationRollupService(ObservationRollupRepository observationRollupRepository,
+            SchedulerLeaseService schedulerLeaseService,
+            @Qualifier("persistenceScheduler") Scheduler persistenceScheduler) {
+        this.observationRollupRepository = observationRollupRepository;
+        this.schedulerLeaseService = schedulerLeaseService;
+        this.persistenceScheduler = persistenceScheduler;
+    }
+
+    void recordWeather(List<WeatherData> rows, InsertResult result) {
+        record(WEATHER, rows, result);
+    }
+
+    void recordMeteo(List<MeteoData> rows, InsertResult result) {
+        record(METEO, rows, result);
+    }
+
+    void recordMarine(List<MarineData> rows, InsertResult result) {
+        record(MARINE, rows, result);
+    }
+
+    void recordAirQuality(List<AirQualityData> rows, InsertResult result) {
+        record(AIR_QUALITY, rows, result);
+    }
+
+    @Scheduled(fixedDelayString = "${ingest.rollup.reconcile-interval-ms:3600000}",
+            initialDelayString = "${ingest.rollup.reconcile-initial-delay-ms:60000}")
+    public void reconcile() {
+        if (!schedulerLeaseService.holds(LEASE)) {
+            return;
+        }
+        boolean backfill;
+        try {
+            backfill = !observationRollupRepository.existsByResolution(Resolution.DAILY.getCode());
+        } catch (Exception e) {
+            logger.warn("Failed to check observation rollups: {}", e.getMessage());
+            return;
+        }
+        // Whole days, so the daily buckets are recomputed from all of their samples
+        OffsetDateTime since = backfill
+                ? OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC)
+                : Resolution.DAILY.bucketOf(OffsetDateTime.now().minusHours(reconcileWindowHours));
+        if (backfill) {
+            logger.info("No observation rollups found; backfilling from all stored observations");
+        }
+        OffsetDateTime settled = OffsetDateTime.now().minus(Duration.ofMillis(settleMs));
+        for (RollupSource<?> source : SOURCES) {
+            for (Resolution resolution : Resolution.values()) {
+                // Only buckets that closed a while ago; later ones may still have deltas in flight
+                OffsetDateTime until = resolution.bucketOf(settled);
+                if (!until.isAfter(since)) {
+                    continue;
+                }
+                try {
+                    int buckets = observationRollupRepository.rebuild(source.sourceName, source.table,
+                            source.stationKeySql, new ArrayList<>(source.metrics.keySet()),
+                            resolution.getCode(), resolution.truncUnit, since, until);
+                    logger.debug("Rebuilt {} {} rollup buckets of {} from {} to {}",
+                            buckets, resolution.getCode(), source.sourceName, since, until);
+                } catch (Exception e) {
+                    logger.warn("Failed to rebuild {} rollups of {}: {}",
+                            resolution.getCode(), source.sourceName, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * The finest resolution whose buckets over the last {@code hours} fit in
+     * {@code maxPoints}; daily if none does.
+     */
+    public Resolution resolutionFor(int hours, int maxPoints) {
+        Duration window = Duration.ofHours(hours);
+        for (Resolution resolution : Resolution.values()) {
+            if (window.dividedBy(resolution.getBucketSize()) <= maxPoints) {
+                return resolution;
+            }
+        }
+        return Resolution.DAILY;
+    }
+
+    /**
+     * Buckets of one metric of one station over the last {@code hours},
+     * oldest first. Open-Meteo stations are identified as
+     * {@code latitude,longitude}.
+     *
+     * @throws IllegalArgumentException for an unknown source or metric
+     */
+    @Transactional(readOnly = true)
+    public List<ObservationRollup> getSeries(String sourceName, String stationId, String metric,
+            Resolution resolution, int hours) {
+        RollupSource<?> source = source(sourceName, metric);
+        String stationKey = source == METEO ? normalizeCoordinates(stationId) : stationId;
+        OffsetDateTime since = resolution.bucketOf(OffsetDateTime.now().minusHours(hours));
+        return observationRollupRepository.findSeries(sourceName, stationKey, metric, resolution.getCode(), since);
+    }
+
+    /**
+     * Every raw sample of one metric of one station over the last
+     * {@code hours}, oldest first, streamed from the observation table into
+     * primitive arrays.
+     *
+     * @throws IllegalArgumentException for an unknown source or metric
+     */
+    @Transactional(readOnly = true)
+    public SampleSeries getRawSeries(String sourceName, String stationId, String metric, int hours) {
+        RollupSource<?> source = source(sourceName, metric);
+        Object[] stationParams;
+        if (source == METEO) {
+            String[] coordinates = normalizeCoordinates(stationId).split(",");
+            stationParams = new Object[] {new BigDecimal(coordinates[0]), new BigDecimal(coordinates[1])};
+        } else {
+            stationParams = new Object[] {stationId};
+        }
+        // Sized for five-minute polling; grows as needed
+        SampleSeries samples = new SampleSeries((int) Math.min(hours * 12L, 1 << 16));
+        observationRollupRepository.streamSamples(source.table, source.stationFilterSql, stationParams, metric,
+                OffsetDateTime.now().minusHours(hours), samples::add);
+        return samples;
+    }
+
+    private static RollupSource<?> source(String sourceName, String metric) {
+        RollupSource<?> source = SOURCES.stream()
+                .filter(candidate -> candidate.sourceName.equals(sourceName))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown data source: " + sourceName));
+        // Metric names double as column names in SQL, so only known ones get this far
+        if (!source.metrics.containsKey(metric)) {
+            throw new IllegalArgumentException("Unknown metric for " + sourceName + ": " + metric);
+        }
+        return source;
+    }
+
+    private <T> void record(RollupSource<T> source, List<T> rows, InsertResult result) {
+        Map<String, RollupDelta> deltas = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            // Duplicates were counted when first stored
+            if (!result.wasInserted(i)) {
+                continue;
+            }
+            T row = rows.get(i);
+            String stationId = source.stationKey.apply(row);
+            OffsetDateTime at = source.timestamp.apply(row);
+            for (Map.Entry<String, Function<T, Number>> metric : source.metrics.entrySet()) {
+                Number value = metric.getValue().apply(row);
+                if (value == null) {
+                    continue;
+                }
+                for (Resolution resolution : Resolution.values()) {
+                    OffsetDateTime bucket = resolution.bucketOf(at);
+                    String key = stationId + '|' + metric.getKey() + '|' + resolution.getCode() + '|' + bucket;
+                    deltas.computeIfAbsent(key, k -> new RollupDelta(source.sourceName, stationId,
+                                    metric.getKey(), resolution.getCode(), bucket))
+                            .add(value.doubleValue(), at);
+                }
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+        // Off the flush thread; merges commute, so their order does not matter
+        Mono.fromRunnable(() -> observationRollupRepository.applyDeltas(deltas.values()))
+                .subscribeOn(persistenceScheduler)
+                .subscribe(null, error ->
+                        // The raw rows are stored; a reconcile rebuilds these buckets once they close
+                        logger.warn("Failed to update {} rollups for {} rows: {}",
+                                source.sourceName, rows.size(), error.getMessage()));
+    }
+
+    private static String coordinateKey(BigDecimal latitude, BigDecimal longitude) {
+        return latitude.setScale(COORDINATE_SCALE, RoundingMode.HALF_UP).toPlainString() + ','
+                + longitude.setScale(COORDINATE_SCALE, RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private static String normalizeCoordinates(String stationId) {
+        String[] parts = stationId.split(",");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Open-Meteo stations are given as latitude,longitude: " + stationId);
+        }
+        try {
+            return coordinateKey(new BigDecimal(parts[0].trim()), new BigDecimal(parts[1].trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Open-Meteo stations are given as latitude,longitude: " + stationId);
+        }
+    }
+
+    private static final class RollupSource<T> {
+        final String sourceName;
+        final String table;
+        final String stationKeySql;
+        final String stationFilterSql;
+        final Function<T, String> stationKey;
+        final Function<T, OffsetDateTime> timestamp;
+        // Metric name -> value; each metric is named after its column in table
+        final Map<String, Function<T, Number>> metrics;
+
+        RollupSource(String sourceName, String table, String stationKeySql, String stationFilterSql,
+                Function<T, String> stationKey, Function<T, OffsetDateTime> timestamp,
+                Map<String, Function<T, Number>> metrics) {
+            this.sourceName = sourceName;
+            this.table = table;
+            this.stationKeySql = stationKeySql;
+            this.stationFilterSql = stationFilterSql;
+            this.stationKey = stationKey;
+            this.timestamp = timestamp;
+            this.metrics = metrics;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.fairchild.envmonitor.service;
+
+/**
+ * Poll clock of one station, carried over across registry reloads. Besides
+ * the time of the last poll it learns how often the upstream actually
+ * publishes a new observation for the station: the gaps between successive
+ * observation timestamps are smoothed into an estimated update period.
+ *
+ * <p>Once a period is known, every claim schedules the next poll
+ * pessimistically, as if the poll will bring nothing new: at the expected
+ * time of the next observation, or after an exponential back-off if that
+ * time has already passed. A poll that does bring a newer observation
+ * replaces that with the expected time of the one after it. Until a period
+ * has been learned, the caller's fixed interval applies.
+ */
+final class PollCadence {
+
+    private static final long NONE = Long.MIN_VALUE;
+    private static final double SMOOTHING = 0.3;
+    private static final int MAX_BACKOFF_SHIFT = 10;
+
+    private long lastPolledNanos = NONE;
+    private long nextDueNanos = NONE;
+    private long lastObservedMillis = NONE;
+    private long periodMillis;
+    private int stalePolls;
+
+    /**
+     * Returns true, and records the poll, if the station is due. With
+     * {@code adaptive} set a learned schedule takes precedence over
+     * {@code intervalNanos}; without it only the fixed interval is checked.
+     */
+    synchronized boolean claimIfDue(long nowNanos, long intervalNanos, boolean adaptive, AdaptivePolicy policy) {
+        boolean due;
+        if (lastPolledNanos == NONE) {
+            due = true;
+        } else if (adaptive && nextDueNanos != NONE) {
+            due = nowNanos - nextDueNanos >= 0;
+        } else {
+            due = nowNanos - lastPolledNanos >= intervalNanos;
+        }
+        if (!due) {
+            return false;
+        }
+        lastPolledNanos = nowNanos;
+        if (periodMillis > 0) {
+            long backoffMillis = Math.min(policy.retryMillis << Math.min(stalePolls, MAX_BACKOFF_SHIFT),
+                    periodMillis);
+            stalePolls++;
+            nextDueNanos = nowNanos + Math.max(untilExpectedMillis(policy), backoffMillis) * 1_000_000L;
+        }
+        return true;
+    }
+
+    /**
+     * Records the timestamp of an observation just fetched for the station.
+     * Timestamps not newer than the last one seen are ignored.
+     */
+    synchronized void recordObservation(long observedMillis, long nowNanos, AdaptivePolicy policy) {
+        if (lastObservedMillis != NONE && observedMillis <= lastObservedMillis) {
+            return;
+        }
+        if (lastObservedMillis != NONE) {
+            long gap = observedMillis - lastObservedMillis;
+            long estimate = periodMillis > 0 ? Math.round(SMOOTHING * gap + (1 - SMOOTHING) * periodMillis) : gap;
+            periodMillis = Math.max(policy.minPeriodMillis, Math.min(policy.maxPeriodMillis, estimate));
+        }
+        lastObservedMillis = observedMillis;
+        stalePolls = 0;
+        if (periodMillis > 0) {
+            nextDueNanos = nowNanos + Math.max(untilExpectedMillis(policy), policy.retryMillis) * 1_000_000L;
+        }
+    }
+
+    /** The learned update period in milliseconds, or 0 while still unknown. */
+    synchronized long getPeriodMillis() {
+        return periodMillis;
+    }
+
+    private long untilExpectedMillis(AdaptivePolicy policy) {
+        return lastObservedMillis + periodMillis + policy.graceMillis - System.currentTimeMillis();
+    }
+
+    /** Tuning shared by every station's cadence. */
+    static final class AdaptivePolicy {
+        final long graceMillis;
+        final long retryMillis;
+        final long minPeriodMillis;
+        final long maxPeriodMillis;
+
+        AdaptivePolicy(long graceMillis, long retryMillis, long minPeriodMillis, long maxPeriodMillis) {
+            this.graceMillis = graceMillis;
+            this.retryMillis = retryMillis;
+            this.minPeriodMillis = minPeriodMillis;
+            this.maxPeriodMillis = maxPeriodMillis;
+        }
+    }
+}
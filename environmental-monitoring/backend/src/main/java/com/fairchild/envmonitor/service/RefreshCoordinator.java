@@ -0,0 +1,84 @@
+package com.fairchild.envmonitor.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight guard for whole-source fetch cycles. At most one cycle per
+ * source runs at a time: a trigger (scheduled run or manual refresh) that
+ * arrives while one is in flight joins it and gets the same
+ * {@link RefreshJob} back, so no number of refresh clicks adds upstream
+ * requests or database writes.
+ *
+ * <p>Finished jobs stay queryable by id for {@code ingest.refresh.job-retention-ms}.
+ */
+@Component
+public class RefreshCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshCoordinator.class);
+
+    private final Map<String, RefreshJob> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, RefreshJob> jobs;
+
+    public RefreshCoordinator(@Value("${ingest.refresh.job-retention-ms:3600000}") long jobRetentionMs) {
+        this.jobs = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(jobRetentionMs))
+                .maximumSize(10_000)
+                .build();
+    }
+
+    /**
+     * Starts {@code cycle} for {@code source} unless a cycle for it is
+     * already running, in which case that run is joined. The cycle is
+     * subscribed here and runs to completion regardless of the caller.
+     */
+    public RefreshJob trigger(String source, Supplier<? extends Mono<?>> cycle) {
+        RefreshJob candidate = new RefreshJob(UUID.randomUUID().toString(), source);
+        RefreshJob job = inFlight.merge(source, candidate, (current, created) -> {
+            // A job that has finished but not yet been removed is replaced, not joined
+            if (!current.isRunning()) {
+                return created;
+            }
+            current.join();
+            return current;
+        });
+        if (job != candidate) {
+            logger.info("Joining in-flight {}", job);
+            return job;
+        }
+
+        jobs.put(job.getId(), job);
+        logger.info("Starting {}", job);
+        Mono.defer(cycle)
+                .doFinally(signal -> inFlight.remove(source, job))
+                .subscribe(
+                        result -> job.succeed(String.valueOf(result)),
+                        error -> {
+                            logger.error("{} failed: {}", job, error.getMessage());
+                            job.fail(error.getMessage());
+                        },
+                        () -> {
+                            if (job.isRunning()) {
+                                job.succeed(null);
+                            }
+                            logger.info("Finished {} (served {} triggers)", job, job.getTriggerCount());
+                        });
+        return job;
+    }
+
+    public Optional<RefreshJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+}
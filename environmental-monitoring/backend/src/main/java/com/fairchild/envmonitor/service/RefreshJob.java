@@ -0,0 +1,91 @@
+package com.fairchild.envmonitor.service;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One run of a whole-source fetch cycle started through
+ * {@link RefreshCoordinator}. Every trigger that arrives while the run is in
+ * flight joins it rather than starting another, and is counted.
+ */
+public final class RefreshJob {
+
+    public enum Status {
+        RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final String id;
+    private final String source;
+    private final OffsetDateTime startedAt;
+    private final AtomicInteger triggerCount = new AtomicInteger(1);
+
+    private volatile Status status = Status.RUNNING;
+    private volatile OffsetDateTime finishedAt;
+    private volatile String result;
+    private volatile String errorMessage;
+
+    RefreshJob(String id, String source) {
+        this.id = id;
+        this.source = source;
+        this.startedAt = OffsetDateTime.now();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public OffsetDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isRunning() {
+        return status == Status.RUNNING;
+    }
+
+    public OffsetDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    /** Summary of what the cycle did, once it has succeeded. */
+    public String getResult() {
+        return result;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /** Number of triggers served by this run, the one that started it included. */
+    public int getTriggerCount() {
+        return triggerCount.get();
+    }
+
+    void join() {
+        triggerCount.incrementAndGet();
+    }
+
+    void succeed(String result) {
+        this.result = result;
+        this.finishedAt = OffsetDateTime.now();
+        this.status = Status.SUCCEEDED;
+    }
+
+    void fail(String errorMessage) {
+        this.errorMessage = errorMessage;
+        this.finishedAt = OffsetDateTime.now();
+        this.status = Status.FAILED;
+    }
+
+    @Override
+    public String toString() {
+        return source + " refresh " + id + " (" + status + ")";
+    }
+}
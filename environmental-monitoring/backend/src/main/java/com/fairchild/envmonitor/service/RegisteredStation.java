@@ -0,0 +1,94 @@
+package com.fairchild.envmonitor.service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * Immutable view of one enabled {@code monitoring_station} row as held in
+ * the {@link StationRegistry} snapshot. The only mutable part is its
+ * {@link PollCadence}, which is carried over when the registry reloads so
+ * that a reload neither makes every station due at once nor forgets the
+ * learned update period.
+ */
+public final class RegisteredStation {
+
+    private final String sourceName;
+    private final String stationId;
+    private final String name;
+    private final BigDecimal latitude;
+    private final BigDecimal longitude;
+    private final int priority;
+    private final Duration pollInterval;
+    private final PollCadence cadence;
+
+    RegisteredStation(String sourceName, String stationId, String name, BigDecimal latitude, BigDecimal longitude,
+            int priority, Duration pollInterval, PollCadence cadence) {
+        this.sourceName = sourceName;
+        this.stationId = stationId;
+        this.name = name;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.priority = priority;
+        this.pollInterval = pollInterval;
+        this.cadence = cadence;
+    }
+
+    public String getSourceName() {
+        return sourceName;
+    }
+
+    public String getStationId() {
+        return stationId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BigDecimal getLatitude() {
+        return latitude;
+    }
+
+    public BigDecimal getLongitude() {
+        return longitude;
+    }
+
+    public boolean hasCoordinates() {
+        return latitude != null && longitude != null;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    /** The station's own poll interval, or null to poll on every source cycle. */
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+
+    /** How often the upstream has been seen to publish for this station, or null while unknown. */
+    public Duration getLearnedUpdatePeriod() {
+        long periodMillis = cadence.getPeriodMillis();
+        return periodMillis > 0 ? Duration.ofMillis(periodMillis) : null;
+    }
+
+    PollCadence getCadence() {
+        return cadence;
+    }
+
+    /**
+     * Returns true, and records the poll, if the station is due. The
+     * station's own poll interval, if set, overrides {@code sourceInterval};
+     * with {@code adaptive} set a learned update period overrides both.
+     * Only one concurrent caller wins.
+     */
+    boolean claimIfDue(long nowNanos, Duration sourceInterval, boolean adaptive, PollCadence.AdaptivePolicy policy) {
+        Duration interval = pollInterval != null ? pollInterval : sourceInterval;
+        return cadence.claimIfDue(nowNanos, interval != null ? interval.toNanos() : 0, adaptive, policy);
+    }
+
+    @Override
+    public String toString() {
+        return name != null ? stationId + " (" + name + ")" : stationId;
+    }
+}
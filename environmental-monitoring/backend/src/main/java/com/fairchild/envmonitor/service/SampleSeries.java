@@ -0,0 +1,117 @@
+package com.fairchild.envmonitor.service;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Raw samples of one metric of one station, oldest first, held in primitive
+ * arrays (16 bytes per sample) so long windows can be read and downsampled
+ * without boxing every row.
+ */
+public final class SampleSeries {
+
+    private long[] timestamps;
+    private double[] values;
+    private int size;
+
+    SampleSeries(int initialCapacity) {
+        this.timestamps = new long[Math.max(initialCapacity, 16)];
+        this.values = new double[timestamps.length];
+    }
+
+    private SampleSeries(long[] timestamps, double[] values) {
+        this.timestamps = timestamps;
+        this.values = values;
+        this.size = timestamps.length;
+    }
+
+    void add(long epochMillis, double value) {
+        if (size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        timestamps[size] = epochMillis;
+        values[size] = value;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public OffsetDateTime getTimestamp(int index) {
+        return Instant.ofEpochMilli(timestamps[index]).atOffset(ZoneOffset.UTC);
+    }
+
+    public double getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * At most {@code maxPoints} of these samples, chosen with
+     * Largest-Triangle-Three-Buckets: the first and last sample are kept,
+     * the rest are split into {@code maxPoints - 2} equal buckets, and from
+     * each bucket the sample forming the largest triangle with the sample
+     * kept before it and the average of the next bucket is kept. Peaks and
+     * troughs survive, unlike with averaging or every-nth sampling.
+     */
+    public SampleSeries downsample(int maxPoints) {
+        if (maxPoints < 3) {
+            throw new IllegalArgumentException("maxPoints must be at least 3, was " + maxPoints);
+        }
+        if (size <= maxPoints) {
+            return this;
+        }
+        long[] keptTimestamps = new long[maxPoints];
+        double[] keptValues = new double[maxPoints];
+        // Offsets from the first sample keep the triangle areas precise in double
+        long origin = timestamps[0];
+        double bucketSize = (double) (size - 2) / (maxPoints - 2);
+
+        int kept = 0;
+        int previous = 0;
+        keptTimestamps[kept] = timestamps[0];
+        keptValues[kept++] = values[0];
+
+        for (int bucket = 0; bucket < maxPoints - 2; bucket++) {
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+
+            // Average of the next bucket; the last sample stands in after the final bucket
+            int nextStart = end;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+            double nextX = 0;
+            double nextY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                nextX += timestamps[i] - origin;
+                nextY += values[i];
+            }
+            int nextCount = nextEnd - nextStart;
+            nextX /= nextCount;
+            nextY /= nextCount;
+
+            double previousX = timestamps[previous] - origin;
+            double previousY = values[previous];
+            double largestArea = -1;
+            int selected = start;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle's area; only the comparison matters
+                double area = Math.abs((previousX - nextX) * (values[i] - previousY)
+                        - (previousX - (timestamps[i] - origin)) * (nextY - previousY));
+                if (area > largestArea) {
+                    largestArea = area;
+                    selected = i;
+                }
+            }
+            keptTimestamps[kept] = timestamps[selected];
+            keptValues[kept++] = values[selected];
+            previous = selected;
+        }
+
+        keptTimestamps[kept] = timestamps[size - 1];
+        keptValues[kept] = values[size - 1];
+        return new SampleSeries(keptTimestamps, keptValues);
+    }
+}
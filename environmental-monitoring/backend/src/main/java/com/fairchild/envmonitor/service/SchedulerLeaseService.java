@@ -0,0 +1,127 @@
+package com.fairchild.envmonitor.service;
+
+import com.fairchild.envmonitor.repository.SchedulerLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-source leases in the {@code scheduler_lease} table, so that with
+ * several backend replicas exactly one of them runs each source's scheduled
+ * polling. A node asks {@link #holds} before polling a source; the first
+ * call for a source tries to take its lease, and from then on every lease
+ * this node knows about is renewed each {@code scheduler.lease.renew-interval-ms}.
+ *
+ * <p>A lease lasts {@code scheduler.lease.ttl-ms}. The holder considers it
+ * lost once that long has passed since its last successful renewal, which is
+ * never later than the database lets another node take it over, so two
+ * nodes never both believe they hold it. A node that dies is replaced within
+ * one TTL plus one renew interval; one that shuts down cleanly releases its
+ * leases at once.
+ *
+ * <p>Manual refreshes are not lease-guarded: they run on whichever node
+ * received the request.
+ */
+@Service
+public class SchedulerLeaseService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchedulerLeaseService.class);
+
+    private static final long NOT_HELD = Long.MIN_VALUE;
+
+    private final SchedulerLeaseRepository schedulerLeaseRepository;
+    private final boolean enabled;
+    private final long ttlMs;
+    private final String nodeId;
+
+    // Source name -> System.nanoTime() until which this node holds the lease
+    private final Map<String, Long> heldUntil = new ConcurrentHashMap<>();
+
+    public SchedulerLeaseService(SchedulerLeaseRepository schedulerLeaseRepository,
+            @Value("${scheduler.lease.enabled:true}") boolean enabled,
+            @Value("${scheduler.lease.ttl-ms:30000}") long ttlMs,
+            @Value("${scheduler.lease.node-id:}") String nodeId) {
+        this.schedulerLeaseRepository = schedulerLeaseRepository;
+        this.enabled = enabled;
+        this.ttlMs = ttlMs;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+    }
+
+    /** Whether this node currently holds the lease for {@code source}, and so should poll it. */
+    public boolean holds(String source) {
+        if (!enabled) {
+            return true;
+        }
+        if (heldUntil.putIfAbsent(source, NOT_HELD) == null) {
+            renew(source);
+        }
+        return isHeld(heldUntil.get(source), System.nanoTime());
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @Scheduled(fixedDelayString = "${scheduler.lease.renew-interval-ms:10000}")
+    public void renewAll() {
+        if (enabled) {
+            heldUntil.keySet().forEach(this::renew);
+        }
+    }
+
+    @PreDestroy
+    public void releaseAll() {
+        if (!enabled || heldUntil.values().stream().allMatch(until -> until == NOT_HELD)) {
+            return;
+        }
+        try {
+            int released = schedulerLeaseRepository.releaseAll(nodeId);
+            heldUntil.replaceAll((source, until) -> NOT_HELD);
+            logger.info("Released {} scheduler leases held by {}", released, nodeId);
+        } catch (Exception e) {
+            logger.warn("Failed to release scheduler leases held by {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    private void renew(String source) {
+        // Measured before the statement runs, so our view of the lease ends no later than the database's
+        long attemptedAt = System.nanoTime();
+        boolean wasHeld = isHeld(heldUntil.get(source), attemptedAt);
+        boolean acquired;
+        try {
+            acquired = schedulerLeaseRepository.tryAcquire(source, nodeId, ttlMs) > 0;
+        } catch (Exception e) {
+            // Keep the current expiry; the lease lapses on its own if the database stays unreachable
+            logger.warn("Failed to renew scheduler lease for {}: {}", source, e.getMessage());
+            return;
+        }
+        heldUntil.put(source, acquired ? attemptedAt + ttlMs * 1_000_000L : NOT_HELD);
+        if (acquired && !wasHeld) {
+            logger.info("Node {} acquired the scheduler lease for {}", nodeId, source);
+        } else if (!acquired && wasHeld) {
+            logger.warn("Node {} lost the scheduler lease for {}", nodeId, source);
+        }
+    }
+
+    private static boolean isHeld(long until, long nowNanos) {
+        return until != NOT_HELD && nowNanos - until < 0;
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown-host";
+        }
+        return host + ":" + ManagementFactory.getRuntimeMXBean().getPid();
+    }
+}
@@ -0,0 +1,88 @@
+package com.fairchild.envmonitor.service;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fetch outcomes of one data source recorded since the last flush to
+ * {@code data_source_status}. Recording is lock-free and never touches the
+ * database; {@link #drain()} hands the accumulated delta to the flusher and
+ * starts a new one.
+ */
+final class SourceStatusCounters {
+
+    private final LongAdder fetches = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final AtomicReference<OffsetDateTime> lastSuccess = new AtomicReference<>();
+    private final AtomicReference<ErrorSample> lastError = new AtomicReference<>();
+
+    void recordSuccess(OffsetDateTime at) {
+        fetches.increment();
+        lastSuccess.accumulateAndGet(at, SourceStatusCounters::later);
+    }
+
+    void recordError(OffsetDateTime at, String message) {
+        errors.increment();
+        lastError.accumulateAndGet(new ErrorSample(at, message), ErrorSample::later);
+    }
+
+    /** Takes everything recorded so far, leaving the counters empty. */
+    Delta drain() {
+        return new Delta(fetches.sumThenReset(), errors.sumThenReset(),
+                lastSuccess.getAndSet(null), lastError.getAndSet(null));
+    }
+
+    /** Puts back a delta that could not be flushed, to go out with the next one. */
+    void restore(Delta delta) {
+        fetches.add(delta.fetches);
+        errors.add(delta.errors);
+        if (delta.lastSuccess != null) {
+            lastSuccess.accumulateAndGet(delta.lastSuccess, SourceStatusCounters::later);
+        }
+        if (delta.lastError != null) {
+            lastError.accumulateAndGet(delta.lastError, ErrorSample::later);
+        }
+    }
+
+    /** What has been recorded but not yet flushed, without taking it. */
+    Delta peek() {
+        return new Delta(fetches.sum(), errors.sum(), lastSuccess.get(), lastError.get());
+    }
+
+    private static OffsetDateTime later(OffsetDateTime current, OffsetDateTime candidate) {
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+
+    static final class ErrorSample {
+        final OffsetDateTime at;
+        final String message;
+
+        ErrorSample(OffsetDateTime at, String message) {
+            this.at = at;
+            this.message = message;
+        }
+
+        static ErrorSample later(ErrorSample current, ErrorSample candidate) {
+            return current == null || candidate.at.isAfter(current.at) ? candidate : current;
+        }
+    }
+
+    static final class Delta {
+        final long fetches;
+        final long errors;
+        final OffsetDateTime lastSuccess;
+        final ErrorSample lastError;
+
+        Delta(long fetches, long errors, OffsetDateTime lastSuccess, ErrorSample lastError) {
+            this.fetches = fetches;
+            this.errors = errors;
+            this.lastSuccess = lastSuccess;
+            this.lastError = lastError;
+        }
+
+        boolean isEmpty() {
+            return fetches == 0 && errors == 0 && lastSuccess == null && lastError == null;
+        }
+    }
+}
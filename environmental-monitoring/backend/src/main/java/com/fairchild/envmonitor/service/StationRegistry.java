@@ -0,0 +1,192 @@
+package com.fairchild.envmonitor.service;
+
+import com.fairchild.envmonitor.entity.MonitoringStation;
+import com.fairchild.envmonitor.repository.MonitoringStationRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * In-memory snapshot of the enabled rows of {@code monitoring_station},
+ * grouped by source and ordered by descending priority. The snapshot is
+ * immutable and swapped atomically on reload, so lookups are plain reads of
+ * a volatile field with no locking or copying.
+ *
+ * <p>The table is re-read every {@code stations.reload-interval-ms}, but
+ * only when a digest of its contents has changed, so stations can be
+ * added, disabled or re-prioritised without a restart.
+ *
+ * <p>With {@code scheduler.adaptive.enabled} each station's poll schedule
+ * follows the update period learned from the observations it returns (see
+ * {@link PollCadence}), so stations are polled shortly after the upstream
+ * is expected to publish and less often while their data stays stale.
+ */
+@Component
+public class StationRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(StationRegistry.class);
+
+    private final MonitoringStationRepository monitoringStationRepository;
+
+    private volatile Map<String, List<RegisteredStation>> stationsBySource = Map.of();
+    private volatile String contentDigest;
+
+    @Value("${scheduler.adaptive.enabled:true}")
+    private boolean adaptive;
+
+    @Value("${scheduler.adaptive.grace-ms:60000}")
+    private long graceMs;
+
+    @Value("${scheduler.adaptive.retry-ms:60000}")
+    private long retryMs;
+
+    @Value("${scheduler.adaptive.min-period-ms:60000}")
+    private long minPeriodMs;
+
+    @Value("${scheduler.adaptive.max-period-ms:21600000}")
+    private long maxPeriodMs;
+
+    private PollCadence.AdaptivePolicy policy;
+
+    public StationRegistry(MonitoringStationRepository monitoringStationRepository) {
+        this.monitoringStationRepository = monitoringStationRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        policy = new PollCadence.AdaptivePolicy(graceMs, retryMs, minPeriodMs, maxPeriodMs);
+        reload();
+    }
+
+    @Scheduled(fixedDelayString = "${stations.reload-interval-ms:60000}",
+            initialDelayString = "${stations.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // Keep polling with the previous snapshot
+            logger.error("Failed to reload station registry: {}", e.getMessage());
+        }
+    }
+
+    /** Enabled stations of a source in priority order; never null, never copied. */
+    public List<RegisteredStation> getStations(String sourceName) {
+        return stationsBySource.getOrDefault(sourceName, List.of());
+    }
+
+    /** Whether poll schedules adapt to each station's learned update period. */
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * Enabled stations of a source whose own poll interval has elapsed,
+     * marking each returned station as polled. Learned schedules are not
+     * consulted, so an on-demand refresh fetches every station.
+     */
+    public List<RegisteredStation> getDueStations(String sourceName) {
+        return claim(getStations(sourceName), null, false);
+    }
+
+    /**
+     * The subset of {@code candidates} that is due, marking each returned
+     * station as polled: stations with a learned update period when their
+     * next observation is expected (or their back-off has run out), others
+     * once {@code sourceInterval} (or their own poll interval) has elapsed.
+     * Used by callers that poll a slice of a source's stations at a time.
+     */
+    public List<RegisteredStation> claimDue(List<RegisteredStation> candidates, Duration sourceInterval) {
+        return claim(candidates, sourceInterval, adaptive);
+    }
+
+    /**
+     * Feeds the timestamp of an observation fetched for a station into its
+     * learned update period. Timestamps not newer than the last one seen
+     * are ignored, so re-fetched observations may be recorded freely.
+     */
+    public void recordObservation(RegisteredStation station, OffsetDateTime observedAt) {
+        if (observedAt != null) {
+            station.getCadence().recordObservation(observedAt.toInstant().toEpochMilli(), System.nanoTime(), policy);
+        }
+    }
+
+    private List<RegisteredStation> claim(List<RegisteredStation> candidates, Duration sourceInterval,
+            boolean useLearnedPeriod) {
+        List<RegisteredStation> due = new ArrayList<>(candidates.size());
+        long now = System.nanoTime();
+        for (RegisteredStation station : candidates) {
+            if (station.claimIfDue(now, sourceInterval, useLearnedPeriod, policy)) {
+                due.add(station);
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Leaves out stations without a latitude and longitude, for
+     * coordinate-based sources.
+     */
+    static List<RegisteredStation> withCoordinates(String sourceName, List<RegisteredStation> stations) {
+        List<RegisteredStation> located = new ArrayList<>(stations.size());
+        for (RegisteredStation station : stations) {
+            if (station.hasCoordinates()) {
+                located.add(station);
+            } else {
+                logger.warn("Skipping {} station {}: no coordinates registered", sourceName, station);
+            }
+        }
+        return located;
+    }
+
+    synchronized void reload() {
+        String digest = monitoringStationRepository.findContentDigest();
+        if (Objects.equals(digest, contentDigest)) {
+            return;
+        }
+
+        // Carry cadences over so a reload neither makes every station due nor forgets learned periods
+        Map<String, PollCadence> cadences = new HashMap<>();
+        for (List<RegisteredStation> stations : stationsBySource.values()) {
+            for (RegisteredStation station : stations) {
+                cadences.put(key(station.getSourceName(), station.getStationId()), station.getCadence());
+            }
+        }
+
+        Map<String, List<RegisteredStation>> grouped = new LinkedHashMap<>();
+        int count = 0;
+        for (MonitoringStation row : monitoringStationRepository.findAllEnabled()) {
+            PollCadence cadence = cadences.getOrDefault(key(row.getSourceName(), row.getStationId()),
+                    new PollCadence());
+            Duration pollInterval = row.getPollIntervalSeconds() != null && row.getPollIntervalSeconds() > 0
+                    ? Duration.ofSeconds(row.getPollIntervalSeconds())
+                    : null;
+            grouped.computeIfAbsent(row.getSourceName(), source -> new ArrayList<>())
+                    .add(new RegisteredStation(row.getSourceName(), row.getStationId(), row.getName(),
+                            row.getLatitude(), row.getLongitude(),
+                            row.getPriority() != null ? row.getPriority() : 0, pollInterval, cadence));
+            count++;
+        }
+
+        Map<String, List<RegisteredStation>> snapshot = new HashMap<>();
+        grouped.forEach((source, stations) -> snapshot.put(source, List.copyOf(stations)));
+        stationsBySource = Map.copyOf(snapshot);
+        contentDigest = digest;
+        logger.info("Loaded {} enabled stations for {} sources", count, snapshot.size());
+    }
+
+    private static String key(String sourceName, String stationId) {
+        return sourceName + '|' + stationId;
+    }
+}
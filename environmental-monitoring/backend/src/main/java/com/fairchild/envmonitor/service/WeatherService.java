@@ -12,6 +12,7 @@ import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
@@ -27,58 +28,51 @@ public class WeatherService {
     private final WeatherDataRepository weatherDataRepository;
     private final DataSourceStatusService dataSourceStatusService;
     private final ObjectMapper objectMapper;
-
-    // Default weather stations for different regions
-    private static final String[] DEFAULT_STATIONS = {
-            "KORD", // Chicago O'Hare
-            "KLAX", // Los Angeles
-            "KJFK", // JFK New York
-            "KDEN", // Denver
-            "KIAH", // Houston
-            "KSEA", // Seattle
-            "KMIA", // Miami
-            "KATL" // Atlanta
-    };
+    private final FetchCycleExecutor fetchCycleExecutor;
+    private final IngestionWriter ingestionWriter;
+    private final StationRegistry stationRegistry;
+    private final LatestObservationStore latestObservationStore;
+    private final Scheduler persistenceScheduler;
 
     public WeatherService(@Qualifier("weatherGovWebClient") WebClient weatherGovWebClient,
             WeatherDataRepository weatherDataRepository,
             DataSourceStatusService dataSourceStatusService,
-            ObjectMapper objectMapper) {
+            ObjectMapper objectMapper,
+            FetchCycleExecutor fetchCycleExecutor,
+            IngestionWriter ingestionWriter,
+            StationRegistry stationRegistry,
+            LatestObservationStore latestObservationStore,
+            @Qualifier("persistenceScheduler") Scheduler persistenceScheduler) {
         this.weatherGovWebClient = weatherGovWebClient;
         this.weatherDataRepository = weatherDataRepository;
         this.dataSourceStatusService = dataSourceStatusService;
         this.objectMapper = objectMapper;
+        this.fetchCycleExecutor = fetchCycleExecutor;
+        this.ingestionWriter = ingestionWriter;
+        this.stationRegistry = stationRegistry;
+        this.latestObservationStore = latestObservationStore;
+        this.persistenceScheduler = persistenceScheduler;
     }
 
     @Async("taskExecutor")
     public CompletableFuture<Void> fetchAndStoreWeatherDataAsync() {
-        logger.info("Starting async weather data fetch for all default stations");
-
-        return CompletableFuture.runAsync(() -> {
-            for (String stationId : DEFAULT_STATIONS) {
-                fetchStationData(stationId)
-                        .doOnSuccess(
-                                data -> logger.info("Successfully fetched weather data for station: {}", stationId))
-                        .doOnError(
-                                error -> logger.error("Failed to fetch weather data for station: {}", stationId, error))
-                        .subscribe();
-            }
-        });
+        logger.info("Starting async weather data fetch for all registered stations");
+        return fetchAndStoreWeatherData().then().toFuture();
     }
 
-    public Mono<Void> fetchAndStoreWeatherData() {
-        logger.info("Starting weather data fetch for all default stations");
-
-        return Mono.fromRunnable(() -> {
-            for (String stationId : DEFAULT_STATIONS) {
-                fetchStationData(stationId)
-                        .doOnSuccess(
-                                data -> logger.info("Successfully fetched weather data for station: {}", stationId))
-                        .doOnError(
-                                error -> logger.error("Failed to fetch weather data for station: {}", stationId, error))
-                        .subscribe();
-            }
-        });
+    public Mono<FetchCycleSummary> fetchAndStoreWeatherData() {
+        logger.info("Starting weather data fetch for all registered stations");
+        return fetchAndStoreWeatherData(stationRegistry.getDueStations("weather.gov"));
+    }
+
+    /** Fetches the given, already claimed, stations. */
+    public Mono<FetchCycleSummary> fetchAndStoreWeatherData(List<RegisteredStation> stations) {
+        return fetchCycleExecutor.execute("weather.gov", stations,
+                station -> fetchStationData(station.getStationId())
+                        .doOnNext(data -> {
+                            stationRegistry.recordObservation(station, data.getTimestamp());
+                            logger.info("Successfully fetched weather data for station: {}", station);
+                        }));
     }
 
     public Mono<WeatherData> fetchStationData(String stationId) {
@@ -86,14 +80,16 @@ public class WeatherService {
                 .get()
                 .uri("/stations/{stationId}/observations/latest", stationId)
                 .retrieve()
+                // A 304 from ConditionalGetFilter has no body, so nothing is parsed or stored
                 .bodyToMono(JsonNode.class)
-                .map(response -> parseWeatherResponse(response, stationId))
-                .doOnSuccess(weatherData -> {
-                    if (weatherData != null) {
-                        weatherDataRepository.save(weatherData);
-                        dataSourceStatusService.recordSuccessfulFetch("weather.gov");
-                    }
-                })
+                // Leave the event loop before parsing and any blocking status/repository work
+                .publishOn(persistenceScheduler)
+                .mapNotNull(response -> parseWeatherResponse(response, stationId))
+                .flatMap(weatherData -> ingestionWriter.submit(weatherData)
+                        .doOnNext(inserted -> dataSourceStatusService.recordSuccessfulFetch("weather.gov"))
+                        // An observation already stored under the same natural key completes empty (skipped)
+                        .filter(inserted -> inserted)
+                        .map(inserted -> weatherData))
                 .doOnError(error -> {
                     logger.error("Error fetching weather data for station {}: {}", stationId, error.getMessage());
                     dataSourceStatusService.recordError("weather.gov", error.getMessage());
@@ -192,8 +188,8 @@ public class WeatherService {
         return weatherDataRepository.findDistinctStationIds();
     }
 
-    @Cacheable(value = "latestStationData", key = "#stationId")
+    /** Always current, unlike the cached queries above: served from the {@link LatestObservationStore}. */
     public WeatherData getLatestStationData(String stationId) {
-        return weatherDataRepository.findLatestByStationId(stationId);
+        return latestObservationStore.getLatestWeather(stationId);
     }
 }
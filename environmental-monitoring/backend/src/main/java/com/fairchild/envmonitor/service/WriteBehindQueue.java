@@ -0,0 +1,118 @@
+package com.fairchild.envmonitor.service;
+
+import com.fairchild.envmonitor.repository.InsertResult;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Bounded buffer of rows of one entity type waiting to be written in a
+ * single JDBC batch. Each submitted row gets a Mono that completes once its
+ * batch has been flushed, with {@code true} if the row was new.
+ */
+class WriteBehindQueue<T> {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+    private final String name;
+    private final int batchSize;
+    private final BlockingQueue<Pending<T>> queue;
+    private final Function<List<T>, InsertResult> batchWriter;
+    private final Runnable batchReadyListener;
+    private final Scheduler completionScheduler;
+    private final Timer flushTimer;
+
+    WriteBehindQueue(String name, int capacity, int batchSize, Function<List<T>, InsertResult> batchWriter,
+            Runnable batchReadyListener, Scheduler completionScheduler, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchWriter = batchWriter;
+        this.batchReadyListener = batchReadyListener;
+        this.completionScheduler = completionScheduler;
+        this.flushTimer = Timer.builder("ingest.writer.flush")
+                .description("Time to write one batch of buffered rows")
+                .tag("entity", name)
+                .register(meterRegistry);
+        Gauge.builder("ingest.writer.queue.depth", queue, BlockingQueue::size)
+                .description("Rows buffered and waiting to be written")
+                .tag("entity", name)
+                .register(meterRegistry);
+    }
+
+    Mono<Boolean> submit(T row) {
+        return Mono.defer(() -> {
+            Pending<T> pending = new Pending<>(row);
+            if (!queue.offer(pending)) {
+                return Mono.error(new RejectedExecutionException(
+                        "Write-behind queue for " + name + " is full (" + queue.size() + " rows)"));
+            }
+            if (queue.size() >= batchSize) {
+                batchReadyListener.run();
+            }
+            // Callers' follow-up work must not hold up the single flush thread
+            return Mono.fromFuture(pending.result).publishOn(completionScheduler);
+        });
+    }
+
+    Mono<InsertResult> submitAll(List<T> rows) {
+        return Flux.fromIterable(rows)
+                .flatMap(this::submit)
+                .reduce(InsertResult.empty(), (result, inserted) ->
+                        result.plus(inserted ? new InsertResult(1, 0) : new InsertResult(0, 1)));
+    }
+
+    /**
+     * Writes everything currently buffered, one batch of at most
+     * {@code batchSize} rows at a time. Must only be called from the
+     * writer's flush thread.
+     */
+    void flush() {
+        List<Pending<T>> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<Pending<T>> batch) {
+        List<T> rows = new ArrayList<>(batch.size());
+        for (Pending<T> pending : batch) {
+            rows.add(pending.row);
+        }
+        try {
+            InsertResult result = flushTimer.record(() -> batchWriter.apply(rows));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(result.wasInserted(i));
+            }
+            logger.debug("Flushed {} {} rows ({})", rows.size(), name, result);
+        } catch (Exception e) {
+            logger.error("Failed to write batch of {} {} rows: {}", rows.size(), name, e.getMessage());
+            for (Pending<T> pending : batch) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private static final class Pending<T> {
+        final T row;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        Pending(T row) {
+            this.row = row;
+        }
+    }
+}
@@ -15,11 +15,13 @@ CREATE TABLE weather_data (
     visibility DECIMAL(5,2),
     weather_conditions TEXT,
     raw_data JSONB,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    -- Natural key: one row per observation, however often it is polled
+    CONSTRAINT uq_weather_station_timestamp UNIQUE (station_id, timestamp)
 );
 
 -- Performance indexes for weather_data
-CREATE INDEX idx_weather_station_timestamp ON weather_data(station_id, timestamp DESC);
+-- (station + time queries use the uq_weather_station_timestamp index)
 CREATE INDEX idx_weather_timestamp ON weather_data(timestamp DESC);
 CREATE INDEX idx_weather_created_at ON weather_data(created_at);
 
@@ -36,11 +38,11 @@ CREATE TABLE meteo_data (
     wind_direction_10m INTEGER,
     uv_index DECIMAL(4,2),
     raw_data JSONB,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_meteo_location_timestamp UNIQUE (latitude, longitude, timestamp)
 );
 
 -- Performance indexes for meteo_data
-CREATE INDEX idx_meteo_location_timestamp ON meteo_data(latitude, longitude, timestamp DESC);
 CREATE INDEX idx_meteo_timestamp ON meteo_data(timestamp DESC);
 CREATE INDEX idx_meteo_location ON meteo_data(latitude, longitude);
 
@@ -58,11 +60,11 @@ CREATE TABLE marine_data (
     water_temperature DECIMAL(5,2),
     salinity DECIMAL(5,2),
     raw_data JSONB,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_marine_station_timestamp UNIQUE (station_id, timestamp)
 );
 
 -- Performance indexes for marine_data
-CREATE INDEX idx_marine_station_timestamp ON marine_data(station_id, timestamp DESC);
 CREATE INDEX idx_marine_timestamp ON marine_data(timestamp DESC);
 CREATE INDEX idx_marine_location ON marine_data(latitude, longitude);
 
@@ -103,14 +105,32 @@ CREATE TABLE air_quality_data (
     co DECIMAL(6,2),
     aqi INTEGER,
     raw_data JSONB,
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_air_quality_station_timestamp UNIQUE (station_id, timestamp)
 );
 
 -- Performance indexes for air_quality_data
-CREATE INDEX idx_air_quality_station_timestamp ON air_quality_data(station_id, timestamp DESC);
 CREATE INDEX idx_air_quality_timestamp ON air_quality_data(timestamp DESC);
 CREATE INDEX idx_air_quality_location ON air_quality_data(latitude, longitude);
 
+-- Hourly and daily aggregates of every numeric observation column
+CREATE TABLE observation_rollup (
+    id BIGSERIAL PRIMARY KEY,
+    source_name VARCHAR(100) NOT NULL,
+    station_id VARCHAR(50) NOT NULL,
+    metric VARCHAR(50) NOT NULL,
+    resolution VARCHAR(10) NOT NULL,
+    bucket_start TIMESTAMP WITH TIME ZONE NOT NULL,
+    sample_count INTEGER NOT NULL,
+    min_value DOUBLE PRECISION NOT NULL,
+    max_value DOUBLE PRECISION NOT NULL,
+    sum_value DOUBLE PRECISION NOT NULL,
+    last_value DOUBLE PRECISION NOT NULL,
+    last_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    -- Also serves the series reads: one station's metric at one resolution, by time
+    CONSTRAINT uq_observation_rollup_bucket UNIQUE (source_name, station_id, metric, resolution, bucket_start)
+);
+
 -- Forest fire information
 CREATE TABLE fire_data (
     id BIGSERIAL PRIMARY KEY,
@@ -124,6 +144,13 @@ CREATE TABLE fire_data (
     fire_cause VARCHAR(100),
     fire_status VARCHAR(50),
     incident_type VARCHAR(100),
+    bbox_min_lat DECIMAL(10,7),
+    bbox_max_lat DECIMAL(10,7),
+    bbox_min_lon DECIMAL(10,7),
+    bbox_max_lon DECIMAL(10,7),
+    perimeter_fine TEXT,
+    perimeter_medium TEXT,
+    perimeter_coarse TEXT,
     raw_data JSONB,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
@@ -132,6 +159,7 @@ CREATE TABLE fire_data (
 -- Performance indexes for fire_data
 CREATE INDEX idx_fire_status ON fire_data(fire_status);
 CREATE INDEX idx_fire_location ON fire_data(latitude, longitude);
+CREATE INDEX idx_fire_bbox ON fire_data(bbox_min_lat, bbox_max_lat, bbox_min_lon, bbox_max_lon);
 CREATE INDEX idx_fire_discovery_date ON fire_data(discovery_date);
 CREATE INDEX idx_fire_updated_at ON fire_data(updated_at DESC);
 
@@ -159,12 +187,60 @@ CREATE TABLE data_source_status (
     error_message TEXT,
     is_active BOOLEAN DEFAULT true,
     fetch_count INTEGER DEFAULT 0,
-    error_count INTEGER DEFAULT 0
+    error_count INTEGER DEFAULT 0,
+    sync_high_water_mark TIMESTAMP WITH TIME ZONE,
+    last_full_sync TIMESTAMP WITH TIME ZONE
 );
 
 -- Performance indexes for data_source_status
 CREATE INDEX idx_data_source_active ON data_source_status(is_active);
 
+-- Conditional GET validators (ETag / Last-Modified) per upstream URL
+CREATE TABLE http_validator_cache (
+    id BIGSERIAL PRIMARY KEY,
+    url TEXT NOT NULL UNIQUE,
+    etag VARCHAR(255),
+    last_modified VARCHAR(100),
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Stations and locations polled by each data source
+CREATE TABLE monitoring_station (
+    id BIGSERIAL PRIMARY KEY,
+    source_name VARCHAR(100) NOT NULL,
+    station_id VARCHAR(100) NOT NULL,
+    name VARCHAR(255),
+    latitude DECIMAL(10,7),
+    longitude DECIMAL(10,7),
+    enabled BOOLEAN NOT NULL DEFAULT true,
+    priority INTEGER NOT NULL DEFAULT 0,
+    poll_interval_seconds INTEGER,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_monitoring_station_source_station UNIQUE (source_name, station_id)
+);
+
+-- Performance indexes for monitoring_station
+CREATE INDEX idx_monitoring_station_source ON monitoring_station(source_name, enabled, priority DESC);
+
+-- Which backend replica runs each source's scheduled polling
+CREATE TABLE scheduler_lease (
+    id BIGSERIAL PRIMARY KEY,
+    source_name VARCHAR(100) NOT NULL UNIQUE,
+    holder VARCHAR(255) NOT NULL,
+    acquired_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Live backend replicas; station polling is split between them
+CREATE TABLE scheduler_node (
+    id BIGSERIAL PRIMARY KEY,
+    node_id VARCHAR(255) NOT NULL UNIQUE,
+    started_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    heartbeat_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
 -- Insert initial data source status records
 INSERT INTO data_source_status (source_name, is_active) VALUES
 ('weather.gov', true),
@@ -174,3 +250,39 @@ INSERT INTO data_source_status (source_name, is_active) VALUES
 ('air-quality', true),
 ('fire-data', true);
 
+-- Insert initial monitoring stations
+INSERT INTO monitoring_station (source_name, station_id, name, latitude, longitude) VALUES
+('weather.gov', 'KORD', 'Chicago O''Hare', NULL, NULL),
+('weather.gov', 'KLAX', 'Los Angeles', NULL, NULL),
+('weather.gov', 'KJFK', 'JFK New York', NULL, NULL),
+('weather.gov', 'KDEN', 'Denver', NULL, NULL),
+('weather.gov', 'KIAH', 'Houston', NULL, NULL),
+('weather.gov', 'KSEA', 'Seattle', NULL, NULL),
+('weather.gov', 'KMIA', 'Miami', NULL, NULL),
+('weather.gov', 'KATL', 'Atlanta', NULL, NULL),
+('marine-data', '8518750', 'The Battery, NY', NULL, NULL),
+('marine-data', '8443970', 'Boston, MA', NULL, NULL),
+('marine-data', '8452660', 'Newport, RI', NULL, NULL),
+('marine-data', '8531680', 'Sandy Hook, NJ', NULL, NULL),
+('marine-data', '8534720', 'Atlantic City, NJ', NULL, NULL),
+('marine-data', '8551910', 'Cape May, NJ', NULL, NULL),
+('marine-data', '8570283', 'Ocean City Inlet, MD', NULL, NULL),
+('marine-data', '8574680', 'Chesapeake Bay Bridge Tunnel, VA', NULL, NULL),
+('marine-data', '8638610', 'Sewells Point, VA', NULL, NULL),
+('marine-data', '8651370', 'Duck, NC', NULL, NULL),
+('open-meteo', '41.8781,-87.6298', 'Chicago', 41.8781, -87.6298),
+('open-meteo', '34.0522,-118.2437', 'Los Angeles', 34.0522, -118.2437),
+('open-meteo', '40.7128,-74.0060', 'New York', 40.7128, -74.0060),
+('open-meteo', '39.7392,-104.9903', 'Denver', 39.7392, -104.9903),
+('open-meteo', '29.7604,-95.3698', 'Houston', 29.7604, -95.3698),
+('open-meteo', '47.6062,-122.3321', 'Seattle', 47.6062, -122.3321),
+('open-meteo', '25.7617,-80.1918', 'Miami', 25.7617, -80.1918),
+('open-meteo', '33.7490,-84.3880', 'Atlanta', 33.7490, -84.3880),
+('air-quality', 'Chicago', 'Chicago', 41.8781, -87.6298),
+('air-quality', 'Los Angeles', 'Los Angeles', 34.0522, -118.2437),
+('air-quality', 'New York', 'New York', 40.7128, -74.0060),
+('air-quality', 'Denver', 'Denver', 39.7392, -104.9903),
+('air-quality', 'Houston', 'Houston', 29.7604, -95.3698),
+('air-quality', 'Seattle', 'Seattle', 47.6062, -122.3321),
+('air-quality', 'Miami', 'Miami', 25.7617, -80.1918),
+('air-quality', 'Atlanta', 'Atlanta', 33.7490, -84.3880);